@@ -7,38 +7,168 @@ import com.github.javaparser.symbolsolver.resolution.typesolvers.JarTypeSolver;
 import com.github.javaparser.symbolsolver.resolution.typesolvers.JavaParserTypeSolver;
 import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
 import com.github.javaparser.utils.ProjectRoot;
+import com.github.kgeilmann.core.analysis.Analysis;
+import com.github.kgeilmann.core.analysis.EagerLogMessageAnalysis;
 import com.github.kgeilmann.core.analysis.ObjectToStringCallAnalysis;
 import com.github.kgeilmann.core.analysis.WrongLoggerAnalysis;
+import com.github.kgeilmann.core.analysis.WrongLoggerBytecodeAnalysis;
+import com.github.kgeilmann.core.jp.ClassDirectoryTypeSolver;
+import com.github.kgeilmann.core.jp.TieredResolver;
 import com.google.common.base.Preconditions;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 public class Analyser {
 
+    private static final Logger LOG = Logger.getLogger(Analyser.class.getSimpleName());
+
+    /**
+     * The symbol solver of JavaParser caches its facades in a global, unsynchronized map, so analyses using it must not
+     * run concurrently, e.g. in parallel maven builds.
+     */
+    private static final Object SYMBOL_SOLVER_LOCK = new Object();
+
+    private final SourceFilter filter;
+    private final int resultLimit;
+    private final CostProfile profile;
+
+    public Analyser() {
+        this(SourceFilter.ALL);
+    }
+
+    public Analyser(SourceFilter filter) {
+        this(filter, 0);
+    }
+
+    /**
+     * @param resultLimit the analysis is cancelled once at least that many findings are found, no limit if 0. Results of
+     *                    unsolved symbols are no findings.
+     */
+    public Analyser(SourceFilter filter, int resultLimit) {
+        this(filter, resultLimit, CostProfile.NONE);
+    }
+
+    /**
+     * @param profile parse times of the previous runs to parse the expensive files first, updated with this run
+     */
+    public Analyser(SourceFilter filter, int resultLimit, CostProfile profile) {
+        this.filter = filter;
+        this.resultLimit = resultLimit;
+        this.profile = profile;
+    }
+
+    /**
+     * @param jars jars and class directories used for symbol solving
+     */
     public List<AnalysisResult> analyze(List<String> sourceRoots, List<String> jars) throws IOException {
+        return analyze(sourceRoots, jars, Collections.emptyList());
+    }
+
+    /**
+     * Like {@link #analyze(List, List)}, but analyses that can work on the compiled classes use the given class directories
+     * instead of the sources, if any of them exists.
+     */
+    public List<AnalysisResult> analyze(List<String> sourceRoots, List<String> jars, List<String> classDirectories) throws IOException {
         if (sourceRoots == null || sourceRoots.isEmpty()) {
             return Collections.emptyList();
         }
 
         ProjectRoot project = createProjectRoot(sourceRoots, jars);
-        WrongLoggerAnalysis wrongLogger = new WrongLoggerAnalysis(project);
-        List<AnalysisResult> results = wrongLogger.analyse();
-        ObjectToStringCallAnalysis objToString = new ObjectToStringCallAnalysis(project);
-        results.addAll(objToString.analyse());
+        List<AnalysisResult> results = new LinkedList<>();
+        List<Path> existingClassDirectories = classDirectories.stream().map(Paths::get).filter(Files::isDirectory).collect(Collectors.toList());
+        List<Analysis> analyses = new ArrayList<>();
+        if (existingClassDirectories.isEmpty()) {
+            analyses.add(new WrongLoggerAnalysis(project, filter, profile));
+        } else {
+            WrongLoggerBytecodeAnalysis bytecodeAnalysis = filter.isAll()
+                    ? new WrongLoggerBytecodeAnalysis(existingClassDirectories)
+                    : new WrongLoggerBytecodeAnalysis(existingClassDirectories, acceptedSourceFiles(sourceRoots));
+            for (AnalysisResult result : bytecodeAnalysis.analyse(resultLimit)) {
+                resolveSourcePath(result, sourceRoots);
+                results.add(result);
+            }
+        }
+
+        analyses.add(new ObjectToStringCallAnalysis(project, filter, profile));
+        analyses.add(new EagerLogMessageAnalysis(project, filter, profile));
+        synchronized (SYMBOL_SOLVER_LOCK) {
+            for (Analysis analysis : analyses) {
+                if (isLimitReached(results)) {
+                    break;
+                }
+                results.addAll(analysis.analyse(remainingLimit(results)));
+                logResolution(analysis);
+            }
+        }
+
+        try {
+            profile.save();
+        } catch (IOException e) {
+            System.err.println("Cannot save cost profile. Reason: " + e.getMessage());
+        }
         return results;
     }
 
+    private void logResolution(Analysis analysis) {
+        TieredResolver resolver = analysis.getResolver();
+        LOG.info(String.format("%s: %d logger calls and concatenations decided from imports and declarations, %d by the symbol solver",
+                analysis.getClass().getSimpleName(), resolver.getSyntacticCount(), resolver.getSolverCount()));
+    }
+
+    private boolean isLimitReached(List<AnalysisResult> results) {
+        return resultLimit > 0 && AnalysisResult.findings(results) >= resultLimit;
+    }
+
+    private int remainingLimit(List<AnalysisResult> results) {
+        return resultLimit > 0 ? resultLimit - AnalysisResult.findings(results) : 0;
+    }
+
+    /**
+     * The bytecode knows the source file only relative to its source root.
+     */
+    private void resolveSourcePath(AnalysisResult result, List<String> sourceRoots) {
+        if (result.getSourcePath() == null) {
+            return;
+        }
+        sourceRoots.stream()
+                .map(root -> Paths.get(root).resolve(result.getSourcePath()))
+                .filter(Files::isRegularFile)
+                .findFirst()
+                .ifPresent(result::setSourcePath);
+    }
+
+    private Set<String> acceptedSourceFiles(List<String> sourceRoots) throws IOException {
+        Set<String> accepted = new HashSet<>();
+        for (String sourceRoot : sourceRoots) {
+            Path root = Paths.get(sourceRoot);
+            for (Path file : filter.collect(root)) {
+                accepted.add(root.relativize(file).toString().replace(File.separatorChar, '/'));
+            }
+        }
+        return accepted;
+    }
+
     private ProjectRoot createProjectRoot(List<String> sourceRoots, List<String> jars) throws IOException {
 
         CombinedTypeSolver typeSolver = new CombinedTypeSolver(new ReflectionTypeSolver(false));
         for (String root : sourceRoots) {
             typeSolver.add(new JavaParserTypeSolver(root));
         }
-        for (String jar : jars) {
-            typeSolver.add(new JarTypeSolver(jar));
+        List<Path> classpath = jars.stream().map(Paths::get).collect(Collectors.toList());
+        for (Path path : classpath) {
+            typeSolver.add(Files.isDirectory(path) ? new ClassDirectoryTypeSolver(path, classpath) : new JarTypeSolver(path));
         }
 
         ParserConfiguration parserConfiguration = new ParserConfiguration().setSymbolResolver(new JavaSymbolSolver(typeSolver));
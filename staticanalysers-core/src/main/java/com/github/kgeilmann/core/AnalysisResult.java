@@ -1,11 +1,29 @@
 package com.github.kgeilmann.core;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 public class AnalysisResult {
 
+    /**
+     * Most severe results first, results of the same severity keep their order.
+     */
+    public static final Comparator<AnalysisResult> BY_SEVERITY = Comparator.comparingInt(AnalysisResult::getSeverity).reversed();
+
     private final String expression;
     private String filePath;
+    private Path sourcePath;
+    private int line;
     private String location;
     private String message;
+    private int severity;
+    private boolean unsolved;
 
     public AnalysisResult(String location, String expression, String message) {
         this.location = location;
@@ -25,6 +43,29 @@ public class AnalysisResult {
         this.filePath = filePath;
     }
 
+    /**
+     * Path of the source file, absolute if the file was found, otherwise relative to its source root. Null if unknown,
+     * e.g. for classes compiled without debug information.
+     */
+    public Path getSourcePath() {
+        return sourcePath;
+    }
+
+    public void setSourcePath(Path sourcePath) {
+        this.sourcePath = sourcePath;
+    }
+
+    /**
+     * Line of the finding in the source file, 0 if unknown.
+     */
+    public int getLine() {
+        return line;
+    }
+
+    public void setLine(int line) {
+        this.line = line;
+    }
+
     public String getLocation() {
         return location;
     }
@@ -33,4 +74,44 @@ public class AnalysisResult {
         return message;
     }
 
+    /**
+     * Higher values are more severe, 0 if the analysis does not distinguish.
+     */
+    public int getSeverity() {
+        return severity;
+    }
+
+    public void setSeverity(int severity) {
+        this.severity = severity;
+    }
+
+    /**
+     * Whether the analysis could not decide, because a symbol could not be solved. Such a result points to a gap in the
+     * type solving (e.g. a missing jar), not to a problem in the code, so it is not a finding.
+     */
+    public boolean isUnsolved() {
+        return unsolved;
+    }
+
+    public void setUnsolved(boolean unsolved) {
+        this.unsolved = unsolved;
+    }
+
+    /**
+     * Number of results, which are findings, i.e. not unsolved.
+     */
+    public static int findings(Collection<AnalysisResult> results) {
+        return (int) results.stream().filter(r -> !r.isUnsolved()).count();
+    }
+
+    /**
+     * Groups the results by their file, ranked {@link #BY_SEVERITY} within each file. The files are ordered by their most
+     * severe result.
+     */
+    public static Map<String, List<AnalysisResult>> rankedByFile(Collection<AnalysisResult> results) {
+        List<AnalysisResult> ranked = new ArrayList<>(results);
+        ranked.sort(BY_SEVERITY);
+        return ranked.stream().collect(Collectors.groupingBy(AnalysisResult::getFilePath, LinkedHashMap::new, Collectors.toList()));
+    }
+
 }
@@ -0,0 +1,126 @@
+package com.github.kgeilmann.core;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Measured parse times of the source files of the previous runs, used to start parsing the expensive files first.
+ * Files without measurement are estimated by their size.
+ * <p>
+ * The profile is a tab separated text file with one line per file: milliseconds, size in bytes and absolute path.
+ */
+public class CostProfile {
+
+    /**
+     * Profile without previous measurements, that does not record anything.
+     */
+    public static final CostProfile NONE = new CostProfile(null);
+
+    private final Path file;
+    private final Map<String, Long> previous = new HashMap<>();
+    private final Map<String, Long> previousSizes = new HashMap<>();
+    private final Map<String, Long> currentMillis = new ConcurrentHashMap<>();
+    private final Map<String, Long> currentSizes = new ConcurrentHashMap<>();
+    private double millisPerByte = 1;
+
+    private CostProfile(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Loads the profile from the given file. A missing or unreadable file results in an empty profile, which is
+     * written to the file by {@link #save()}.
+     */
+    public static CostProfile load(Path file) {
+        CostProfile profile = new CostProfile(file);
+        if (!Files.isRegularFile(file)) {
+            return profile;
+        }
+
+        long totalMillis = 0;
+        long totalSize = 0;
+        try {
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            for (String line : lines) {
+                String[] parts = line.split("\t", 3);
+                if (parts.length != 3) {
+                    continue;
+                }
+                long millis = Long.parseLong(parts[0]);
+                totalMillis += millis;
+                totalSize += Long.parseLong(parts[1]);
+                profile.previous.put(parts[2], millis);
+                profile.previousSizes.put(parts[2], Long.parseLong(parts[1]));
+            }
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Cannot read cost profile " + file + ". Reason: " + e.getMessage());
+            profile.previous.clear();
+            profile.previousSizes.clear();
+            return profile;
+        }
+        if (totalMillis > 0 && totalSize > 0) {
+            profile.millisPerByte = (double) totalMillis / totalSize;
+        }
+        return profile;
+    }
+
+    public long estimate(Path sourceFile, long size) {
+        Long millis = previous.get(key(sourceFile));
+        return millis != null ? millis : (long) (size * millisPerByte);
+    }
+
+    /**
+     * Adds the given time to the cost of the file in the current run. Safe to be called concurrently.
+     */
+    public void record(Path sourceFile, long size, long millis) {
+        if (file == null) {
+            return;
+        }
+        currentMillis.merge(key(sourceFile), millis, Long::sum);
+        currentSizes.put(key(sourceFile), size);
+    }
+
+    /**
+     * Writes the costs recorded in the current run to the profile file. Files not analysed in this run (filtered, or
+     * skipped after reaching the result limit) keep their previous costs, unless they do not exist anymore.
+     */
+    public void save() throws IOException {
+        if (file == null) {
+            return;
+        }
+
+        Map<String, Long> millis = new HashMap<>();
+        Map<String, Long> sizes = new HashMap<>();
+        previous.forEach((sourceFile, m) -> {
+            if (Files.exists(Paths.get(sourceFile))) {
+                millis.put(sourceFile, m);
+                sizes.put(sourceFile, previousSizes.get(sourceFile));
+            }
+        });
+        millis.putAll(currentMillis);
+        sizes.putAll(currentSizes);
+        if (millis.isEmpty() && !Files.exists(file)) {
+            return;
+        }
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, Long> e : millis.entrySet()) {
+                writer.write(e.getValue() + "\t" + sizes.get(e.getKey()) + "\t" + e.getKey());
+                writer.newLine();
+            }
+        }
+    }
+
+    private static String key(Path sourceFile) {
+        return sourceFile.toAbsolutePath().normalize().toString();
+    }
+}
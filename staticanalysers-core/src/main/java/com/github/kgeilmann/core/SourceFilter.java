@@ -0,0 +1,84 @@
+package com.github.kgeilmann.core;
+
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Decides which source files get analysed, based on include and exclude glob patterns and a maximum file size. The
+ * patterns are matched against the absolute path of a file, e.g. {@code **}{@code /target/generated-sources/**}. An
+ * empty (or null) include list includes all java files, a maximum file size of 0 or less means no limit.
+ * <p>
+ * The filter only applies to the analysed files, all source roots are still used for symbol solving.
+ */
+public class SourceFilter {
+
+    public static final SourceFilter ALL = new SourceFilter(Collections.emptyList(), Collections.emptyList(), 0);
+
+    private final List<PathMatcher> includes;
+    private final List<PathMatcher> excludes;
+    private final long maxFileSize;
+
+    public SourceFilter(List<String> includes, List<String> excludes, long maxFileSize) {
+        FileSystem fs = FileSystems.getDefault();
+        this.includes = compile(fs, includes);
+        this.excludes = compile(fs, excludes);
+        this.maxFileSize = maxFileSize;
+    }
+
+    private static List<PathMatcher> compile(FileSystem fs, List<String> patterns) {
+        if (patterns == null) {
+            return Collections.emptyList();
+        }
+        return patterns.stream().map(p -> fs.getPathMatcher("glob:" + p)).collect(Collectors.toList());
+    }
+
+    /**
+     * Whether the filter accepts all java files, i.e. there are no patterns and no size limit.
+     */
+    public boolean isAll() {
+        return includes.isEmpty() && excludes.isEmpty() && maxFileSize <= 0;
+    }
+
+    public boolean accepts(Path file, long size) {
+        if (!file.toString().endsWith(".java")) {
+            return false;
+        }
+        if (maxFileSize > 0 && size > maxFileSize) {
+            return false;
+        }
+
+        Path absolute = file.toAbsolutePath().normalize();
+        if (!includes.isEmpty() && includes.stream().noneMatch(m -> m.matches(absolute))) {
+            return false;
+        }
+        return excludes.stream().noneMatch(m -> m.matches(absolute));
+    }
+
+    /**
+     * Collects the accepted files below the given root. Only the file attributes are used, no file is read.
+     */
+    public List<Path> collect(Path root) throws IOException {
+        List<Path> files = new ArrayList<>();
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (attrs.isRegularFile() && accepts(file, attrs.size())) {
+                    files.add(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return files;
+    }
+}
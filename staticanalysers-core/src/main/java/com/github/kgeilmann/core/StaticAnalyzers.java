@@ -11,37 +11,66 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
 public class StaticAnalyzers {
     private static final Logger LOG = Logger.getLogger(StaticAnalyzers.class.getSimpleName());
 
     public static void main(String[] args) {
-        if (args.length != 2) {
-            System.err.println("Usage: ");
+        List<String> includes = new ArrayList<>();
+        List<String> excludes = new ArrayList<>();
+        long maxFileSize = 0;
+        int i = 0;
+        try {
+            for (; i < args.length && args[i].startsWith("--"); i += 2) {
+                switch (args[i]) {
+                    case "--include":
+                        includes.add(args[i + 1]);
+                        break;
+                    case "--exclude":
+                        excludes.add(args[i + 1]);
+                        break;
+                    case "--max-file-size":
+                        maxFileSize = Long.parseLong(args[i + 1]);
+                        break;
+                    default:
+                        throw new IllegalArgumentException(args[i]);
+                }
+            }
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            i = -1;
+        }
+
+        if (i < 0 || args.length - i != 2) {
+            System.err.println("Usage: [options] <input file> <output file>");
             System.err.println("\tfirst parameter: file with all input jars and source dirs");
             System.err.println("\tsecond parameter: output file");
+            System.err.println("\t--include <glob>: only analyse matching source files, may be repeated");
+            System.err.println("\t--exclude <glob>: do not analyse matching source files, may be repeated");
+            System.err.println("\t--max-file-size <bytes>: do not analyse larger source files");
             return;
         }
 
-        Path input = Paths.get(args[0]);
+        Path input = Paths.get(args[i]);
         Path resolved = Paths.get(".").toAbsolutePath().resolve(input).normalize();
         ProjectRoot project = new FileBasedCollectionStrategy().collect(resolved);
 
-        WrongLoggerAnalysis wrongLogger = new WrongLoggerAnalysis(project);
+        WrongLoggerAnalysis wrongLogger = new WrongLoggerAnalysis(project, new SourceFilter(includes, excludes, maxFileSize));
         List<AnalysisResult> results = wrongLogger.analyse();
+        LOG.info(String.format("%d logger calls decided from imports and declarations, %d by the symbol solver",
+                wrongLogger.getResolver().getSyntacticCount(), wrongLogger.getResolver().getSolverCount()));
 
-        Path output = Paths.get(args[1]);
+        Path output = Paths.get(args[i + 1]);
         try (BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.CREATE)) {
-            Map<String, List<AnalysisResult>> grouped = results.stream().collect(Collectors.groupingBy(AnalysisResult::getFilePath));
+            Map<String, List<AnalysisResult>> grouped = AnalysisResult.rankedByFile(results);
             for (Map.Entry<String, List<AnalysisResult>> entry : grouped.entrySet()) {
                 writer.write(entry.getKey());
                 writer.newLine();
                 for (AnalysisResult r : entry.getValue()) {
-                    writer.write("\t" + r.getLocation() + "\t" + r.getMessage());
+                    writer.write("\t" + r.getLocation() + "\t" + r.getSeverity() + "\t" + r.getMessage());
                     writer.newLine();
                 }
             }
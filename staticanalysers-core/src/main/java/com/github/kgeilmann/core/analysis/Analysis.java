@@ -8,6 +8,10 @@ import com.github.javaparser.ast.visitor.GenericVisitor;
 import com.github.javaparser.utils.ProjectRoot;
 import com.github.javaparser.utils.SourceRoot;
 import com.github.kgeilmann.core.AnalysisResult;
+import com.github.kgeilmann.core.CostProfile;
+import com.github.kgeilmann.core.SourceFilter;
+import com.github.kgeilmann.core.jp.SourceScheduler;
+import com.github.kgeilmann.core.jp.TieredResolver;
 
 import java.io.IOException;
 import java.util.LinkedList;
@@ -21,25 +25,40 @@ public abstract class Analysis {
     static final String UNSOLVED = "Could not solve method call in %s.";
 
     private ProjectRoot project;
+    private SourceScheduler scheduler;
+    final TieredResolver resolver = new TieredResolver();
 
-    Analysis(ProjectRoot project) {
+    Analysis(ProjectRoot project, SourceFilter filter, CostProfile profile) {
         this.project = project;
+        this.scheduler = new SourceScheduler(filter, profile);
+    }
+
+    /**
+     * Resolver of the logger calls and concatenations, counting the ones decided from the file alone and by the symbol solver.
+     */
+    public TieredResolver getResolver() {
+        return resolver;
     }
 
     public List<AnalysisResult> analyse() {
+        return analyse(0);
+    }
+
+    /**
+     * Like {@link #analyse()}, but stops analysing further files once at least limit findings are found (unsolved
+     * results are not counted). No limit, if 0.
+     */
+    public List<AnalysisResult> analyse(int limit) {
         List<AnalysisResult> results = new LinkedList<>();
-        project.getSourceRoots().forEach(sr -> analyse(results, sr));
+        for (SourceRoot sr : project.getSourceRoots()) {
+            analyse(results, sr, limit);
+        }
         return results;
     }
 
-    private void analyse(List<AnalysisResult> results, SourceRoot sourceRoot) {
+    private void analyse(List<AnalysisResult> results, SourceRoot sourceRoot, int limit) {
         try {
-            sourceRoot.parse("", (localPath, absolutePath, parseResult) -> {
-                if (parseResult.isSuccessful()) {
-                    analyse(results, parseResult.getResult().get());
-                }
-                return SourceRoot.Callback.Result.DONT_SAVE;
-            });
+            scheduler.parse(sourceRoot, () -> limit > 0 && AnalysisResult.findings(results) >= limit, cu -> analyse(results, cu));
         } catch (IOException e) {
             System.err.println("Parsing failed for source root " + sourceRoot.getRoot() + ". Reason: " + e.getMessage());
         }
@@ -51,6 +70,7 @@ public abstract class Analysis {
             if (cuResults != null) {
                 cuResults.forEach(ar -> {
                     ar.setFilePath(cu.getStorage().get().getFileName());
+                    ar.setSourcePath(cu.getStorage().get().getPath().toAbsolutePath());
                     results.add(ar);
                 });
             }
@@ -63,9 +83,23 @@ public abstract class Analysis {
     abstract GenericVisitor<List<AnalysisResult>, ?> getVisitor();
 
     AnalysisResult result(Node node, String message, String surroundingType) {
+        return result(node, String.format(message, surroundingType));
+    }
+
+    /**
+     * Result with the given, already complete message.
+     */
+    AnalysisResult result(Node node, String message) {
         String location = node.getTokenRange().flatMap(TokenRange::toRange).map(Range::toString).orElse("");
-        String expression = node.toString();
-        return new AnalysisResult(location, expression, String.format(message, surroundingType));
+        AnalysisResult result = new AnalysisResult(location, node.toString(), message);
+        node.getBegin().ifPresent(begin -> result.setLine(begin.line));
+        return result;
+    }
+
+    AnalysisResult unsolved(Node node, String surroundingType) {
+        AnalysisResult result = result(node, UNSOLVED, surroundingType);
+        result.setUnsolved(true);
+        return result;
     }
 }
 
@@ -0,0 +1,268 @@
+package com.github.kgeilmann.core.analysis;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.body.BodyDeclaration;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.EnumDeclaration;
+import com.github.javaparser.ast.expr.BinaryExpr;
+import com.github.javaparser.ast.expr.EnclosedExpr;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.LambdaExpr;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.expr.UnaryExpr;
+import com.github.javaparser.ast.nodeTypes.NodeWithStatements;
+import com.github.javaparser.ast.stmt.DoStmt;
+import com.github.javaparser.ast.stmt.ForEachStmt;
+import com.github.javaparser.ast.stmt.ForStmt;
+import com.github.javaparser.ast.stmt.IfStmt;
+import com.github.javaparser.ast.stmt.Statement;
+import com.github.javaparser.ast.stmt.WhileStmt;
+import com.github.javaparser.ast.visitor.GenericListVisitorAdapter;
+import com.github.javaparser.resolution.UnsolvedSymbolException;
+import com.github.javaparser.utils.ProjectRoot;
+import com.github.kgeilmann.core.AnalysisResult;
+import com.github.kgeilmann.core.CostProfile;
+import com.github.kgeilmann.core.SourceFilter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class EagerLogMessageAnalysis extends Analysis {
+
+    private static final Set<String> QUALIFIED_LOGGER_METHODS = Set.of(
+            "org.apache.log4j.Logger.trace(java.lang.Object)",
+            "org.apache.log4j.Category.debug(java.lang.Object)",
+            "org.apache.log4j.Category.info(java.lang.Object)",
+            "org.apache.log4j.Logger.trace(java.lang.Object, java.lang.Throwable)",
+            "org.apache.log4j.Category.debug(java.lang.Object, java.lang.Throwable)",
+            "org.apache.log4j.Category.info(java.lang.Object, java.lang.Throwable)"
+    );
+    // guards ensuring the level of the logger method is enabled, the first one is the one to recommend
+    private static final Map<String, List<String>> GUARDS = Map.of(
+            "trace", List.of("isTraceEnabled"),
+            "debug", List.of("isDebugEnabled", "isTraceEnabled"),
+            "info", List.of("isInfoEnabled", "isDebugEnabled", "isTraceEnabled")
+    );
+    // each enclosing loop multiplies the estimated cost
+    private static final int LOOP_FACTOR = 10;
+    private static final String MESSAGE = "Log message is built even if the level is disabled, guard the call with %s(). Estimated cost: %d.";
+
+    // decisions of the concatenations of the current message, each of them is checked several times
+    private final Map<BinaryExpr, Boolean> concatenations = new IdentityHashMap<>();
+
+    @Override
+    public String getDescription() {
+        return "Detects string concatenation, String.format and toString() in trace, debug and info logger calls, which are not guarded by a check of the log level. The findings are ranked by estimated cost.";
+    }
+
+    public EagerLogMessageAnalysis(ProjectRoot project) {
+        this(project, SourceFilter.ALL);
+    }
+
+    public EagerLogMessageAnalysis(ProjectRoot project, SourceFilter filter) {
+        this(project, filter, CostProfile.NONE);
+    }
+
+    public EagerLogMessageAnalysis(ProjectRoot project, SourceFilter filter, CostProfile profile) {
+        super(project, filter, profile);
+    }
+
+    @Override
+    GenericListVisitorAdapter<AnalysisResult, ?> getVisitor() {
+        return new FindLoggerCallVisitor();
+    }
+
+    private class FindLoggerCallVisitor extends GenericListVisitorAdapter<AnalysisResult, String> {
+
+        @Override
+        public List<AnalysisResult> visit(ClassOrInterfaceDeclaration n, String arg) {
+            String declaredType = n.getName().asString();
+            return super.visit(n, declaredType);
+        }
+
+        @Override
+        public List<AnalysisResult> visit(EnumDeclaration n, String arg) {
+            String declaredType = n.getName().asString();
+            return super.visit(n, declaredType);
+        }
+
+        @Override
+        public List<AnalysisResult> visit(MethodCallExpr mc, String surroundingType) {
+            List<String> guards = GUARDS.get(mc.getName().asString());
+            if (guards == null || mc.getArguments().isEmpty() || isGuarded(mc, guards)) {
+                return super.visit(mc, surroundingType);
+            }
+
+            try {
+                if (!resolver.isCallOf(mc, QUALIFIED_LOGGER_METHODS)) {
+                    return super.visit(mc, surroundingType);
+                }
+
+                int cost = conversions(mc.getArgument(0));
+                if (cost == 0) {
+                    return super.visit(mc, surroundingType);
+                }
+                for (int i = loopDepth(mc); i > 0; i--) {
+                    cost *= LOOP_FACTOR;
+                }
+
+                AnalysisResult result = result(mc, String.format(MESSAGE, guards.get(0), cost));
+                result.setSeverity(cost);
+                return Collections.singletonList(result);
+            } catch (UnsolvedSymbolException e) {
+                return Collections.singletonList(unsolved(mc, surroundingType));
+            }
+        }
+    }
+
+    /**
+     * Number of string conversions and appends, which are executed to build the message.
+     */
+    private int conversions(Expression message) {
+        concatenations.clear();
+        int count = 0;
+        for (BinaryExpr concat : message.findAll(BinaryExpr.class, this::isOutermostConcatenation)) {
+            count += (int) operands(concat).stream().filter(e -> !e.isStringLiteralExpr()).count();
+        }
+        for (MethodCallExpr call : message.findAll(MethodCallExpr.class)) {
+            if (isStringFormat(call)) {
+                // parsing the format plus each formatted argument
+                count += call.getArguments().size();
+            } else if ("toString".equals(call.getName().asString()) && call.getArguments().isEmpty()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private boolean isOutermostConcatenation(BinaryExpr expr) {
+        if (!isConcatenation(expr)) {
+            return false;
+        }
+        Node parent = expr.getParentNode().orElse(null);
+        while (parent instanceof EnclosedExpr) {
+            parent = parent.getParentNode().orElse(null);
+        }
+        return !(parent instanceof BinaryExpr && isConcatenation((BinaryExpr) parent));
+    }
+
+    private boolean isConcatenation(BinaryExpr expr) {
+        return concatenations.computeIfAbsent(expr, resolver::isStringConcatenation);
+    }
+
+    private List<Expression> operands(BinaryExpr concat) {
+        List<Expression> operands = new ArrayList<>();
+        for (Expression side : List.of(concat.getLeft(), concat.getRight())) {
+            Expression e = side.isEnclosedExpr() ? side.asEnclosedExpr().getInner() : side;
+            if (e.isBinaryExpr() && isConcatenation(e.asBinaryExpr())) {
+                operands.addAll(operands(e.asBinaryExpr()));
+            } else {
+                operands.add(e);
+            }
+        }
+        return operands;
+    }
+
+    private boolean isStringFormat(MethodCallExpr call) {
+        return "format".equals(call.getName().asString()) && call.getScope()
+                .map(Node::toString)
+                .filter(s -> "String".equals(s) || "java.lang.String".equals(s))
+                .isPresent();
+    }
+
+    /**
+     * Whether the call only runs, if the level is enabled: in the then branch of a guard, in the else branch of a negated
+     * guard, or after a negated guard, which leaves the block, e.g. {@code if (!LOG.isDebugEnabled()) return;}.
+     */
+    private boolean isGuarded(MethodCallExpr mc, List<String> guards) {
+        Node child = mc;
+        Node parent = mc.getParentNode().orElse(null);
+        while (parent != null && !(parent instanceof BodyDeclaration) && !(parent instanceof LambdaExpr)) {
+            if (parent instanceof IfStmt) {
+                IfStmt ifStmt = (IfStmt) parent;
+                if (ifStmt.getThenStmt() == child && isGuard(ifStmt.getCondition(), guards)) {
+                    return true;
+                }
+                if (ifStmt.getElseStmt().orElse(null) == child && isNegatedGuard(ifStmt.getCondition(), guards)) {
+                    return true;
+                }
+            } else if (parent instanceof NodeWithStatements) {
+                for (Statement statement : ((NodeWithStatements<?>) parent).getStatements()) {
+                    if (statement == child) {
+                        break;
+                    }
+                    if (statement.isIfStmt() && isNegatedGuard(statement.asIfStmt().getCondition(), guards) && leaves(statement.asIfStmt().getThenStmt())) {
+                        return true;
+                    }
+                }
+            }
+            child = parent;
+            parent = parent.getParentNode().orElse(null);
+        }
+        return false;
+    }
+
+    /**
+     * Whether the condition can only be true, if the level is enabled: the guard call is the whole condition or an
+     * operand of &&.
+     */
+    private boolean isGuard(Expression condition, List<String> guards) {
+        Expression e = condition;
+        while (e.isEnclosedExpr()) {
+            e = e.asEnclosedExpr().getInner();
+        }
+        if (e.isMethodCallExpr()) {
+            return guards.contains(e.asMethodCallExpr().getName().asString()) && e.asMethodCallExpr().getArguments().isEmpty();
+        }
+        if (e.isBinaryExpr() && e.asBinaryExpr().getOperator() == BinaryExpr.Operator.AND) {
+            return isGuard(e.asBinaryExpr().getLeft(), guards) || isGuard(e.asBinaryExpr().getRight(), guards);
+        }
+        return false;
+    }
+
+    /**
+     * Whether the condition is true, if the level is disabled: the negated guard call is the whole condition or an
+     * operand of ||.
+     */
+    private boolean isNegatedGuard(Expression condition, List<String> guards) {
+        Expression e = condition;
+        while (e.isEnclosedExpr()) {
+            e = e.asEnclosedExpr().getInner();
+        }
+        if (e.isUnaryExpr() && e.asUnaryExpr().getOperator() == UnaryExpr.Operator.LOGICAL_COMPLEMENT) {
+            return isGuard(e.asUnaryExpr().getExpression(), guards);
+        }
+        if (e.isBinaryExpr() && e.asBinaryExpr().getOperator() == BinaryExpr.Operator.OR) {
+            return isNegatedGuard(e.asBinaryExpr().getLeft(), guards) || isNegatedGuard(e.asBinaryExpr().getRight(), guards);
+        }
+        return false;
+    }
+
+    /**
+     * Whether the statement always leaves the enclosing block.
+     */
+    private boolean leaves(Statement statement) {
+        if (statement.isBlockStmt()) {
+            NodeList<Statement> statements = statement.asBlockStmt().getStatements();
+            return statements.isNonEmpty() && leaves(statements.get(statements.size() - 1));
+        }
+        return statement.isReturnStmt() || statement.isContinueStmt() || statement.isBreakStmt() || statement.isThrowStmt();
+    }
+
+    private int loopDepth(Node node) {
+        int depth = 0;
+        Node parent = node.getParentNode().orElse(null);
+        while (parent != null && !(parent instanceof BodyDeclaration) && !(parent instanceof LambdaExpr)) {
+            if (parent instanceof ForStmt || parent instanceof ForEachStmt || parent instanceof WhileStmt || parent instanceof DoStmt) {
+                depth++;
+            }
+            parent = parent.getParentNode().orElse(null);
+        }
+        return depth;
+    }
+}
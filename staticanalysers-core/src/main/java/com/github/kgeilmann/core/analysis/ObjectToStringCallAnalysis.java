@@ -12,6 +12,8 @@ import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclar
 import com.github.javaparser.resolution.types.ResolvedType;
 import com.github.javaparser.utils.ProjectRoot;
 import com.github.kgeilmann.core.AnalysisResult;
+import com.github.kgeilmann.core.CostProfile;
+import com.github.kgeilmann.core.SourceFilter;
 
 import java.util.Collections;
 import java.util.List;
@@ -43,7 +45,15 @@ public class ObjectToStringCallAnalysis extends Analysis {
     }
 
     public ObjectToStringCallAnalysis(ProjectRoot project) {
-        super(project);
+        this(project, SourceFilter.ALL);
+    }
+
+    public ObjectToStringCallAnalysis(ProjectRoot project, SourceFilter filter) {
+        this(project, filter, CostProfile.NONE);
+    }
+
+    public ObjectToStringCallAnalysis(ProjectRoot project, SourceFilter filter, CostProfile profile) {
+        super(project, filter, profile);
     }
 
     @Override
@@ -72,12 +82,11 @@ public class ObjectToStringCallAnalysis extends Analysis {
             }
 
             try {
-                ResolvedMethodDeclaration resolved = mc.resolve();
-                if (!QUALIFIED_LOGGER_METHODS.contains(resolved.getQualifiedSignature())) {
+                if (!resolver.isCallOf(mc, QUALIFIED_LOGGER_METHODS)) {
                     return super.visit(mc, surroundingType);
                 }
             } catch (UnsolvedSymbolException e) {
-                return Collections.singletonList(result(mc, UNSOLVED, surroundingType));
+                return Collections.singletonList(unsolved(mc, surroundingType));
             }
 
             // interesting call to a logger method found, switch visitor to inspect the message argument
@@ -139,7 +148,7 @@ public class ObjectToStringCallAnalysis extends Analysis {
 
                 return Collections.singletonList(result(mc, MESSAGE_EXPLICIT, surroundingType));
             } catch (UnsolvedSymbolException e) {
-                return Collections.singletonList(result(mc, UNSOLVED, surroundingType));
+                return Collections.singletonList(unsolved(mc, surroundingType));
             }
         }
 
@@ -1,121 +1,203 @@
 package com.github.kgeilmann.core.analysis;
 
-import com.github.javaparser.Range;
-import com.github.javaparser.TokenRange;
-import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.BodyDeclaration;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.ConstructorDeclaration;
 import com.github.javaparser.ast.body.EnumDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.InitializerDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.expr.AssignExpr;
 import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.LambdaExpr;
 import com.github.javaparser.ast.expr.MethodCallExpr;
-import com.github.javaparser.ast.visitor.GenericVisitorAdapter;
+import com.github.javaparser.ast.expr.ObjectCreationExpr;
+import com.github.javaparser.ast.stmt.DoStmt;
+import com.github.javaparser.ast.stmt.ForEachStmt;
+import com.github.javaparser.ast.stmt.ForStmt;
+import com.github.javaparser.ast.stmt.LocalClassDeclarationStmt;
+import com.github.javaparser.ast.stmt.WhileStmt;
+import com.github.javaparser.ast.visitor.GenericListVisitorAdapter;
 import com.github.javaparser.resolution.UnsolvedSymbolException;
-import com.github.javaparser.resolution.declarations.ResolvedMethodDeclaration;
 import com.github.javaparser.utils.ProjectRoot;
-import com.github.javaparser.utils.SourceRoot;
 import com.github.kgeilmann.core.AnalysisResult;
+import com.github.kgeilmann.core.CostProfile;
+import com.github.kgeilmann.core.SourceFilter;
 
-import java.io.IOException;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
-import java.util.logging.Logger;
-
-public class WrongLoggerAnalysis {
-
-    public static final String DESCRIPTION = "If org.apache.log4j.Logger#getLogger(Class) is called with X.class, X should be the surrounding class of the call.";
-
-    private static final Logger LOG = Logger.getLogger(WrongLoggerAnalysis.class.getSimpleName());
-    private static final String MESSAGE = "Wrong class in Logger.getLogger(Class), surrounding type is %s.";
-    static final String UNSOLVED = "Could not solve method call in %s.";
-
-    private ProjectRoot project;
+import java.util.Set;
+
+public class WrongLoggerAnalysis extends Analysis {
+
+    public static final String DESCRIPTION = "If org.apache.log4j.Logger#getLogger(Class) is called with X.class, X should be the surrounding class of the call. "
+            + "Loggers should be looked up once per class, in a static final field.";
+
+    static final String MESSAGE = "Wrong class in Logger.getLogger(Class), surrounding type is %s.";
+    static final String MESSAGE_PER_CALL = "Logger is looked up on each call, store it in a static final field of %s.";
+    static final String MESSAGE_PER_INSTANCE = "Logger is looked up for each instance, store it in a static final field of %s.";
+    static final String MESSAGE_NOT_FINAL = "Logger is stored in a static field of %s, which is not final.";
+    static final int SEVERITY_NOT_FINAL = 1;
+    static final int SEVERITY_PER_INSTANCE = 2;
+    static final int SEVERITY_PER_CALL = 3;
+    // lookups in loops and frequently instantiated classes multiply the severity
+    static final int FREQUENT_FACTOR = 10;
+    private static final Set<String> GET_LOGGER = Set.of(
+            "org.apache.log4j.Logger.getLogger(java.lang.Class)",
+            "org.apache.log4j.Logger.getLogger(java.lang.String)"
+    );
 
     public WrongLoggerAnalysis(ProjectRoot project) {
-        this.project = project;
+        this(project, SourceFilter.ALL);
     }
 
-
-    public List<AnalysisResult> analyse() {
-        List<AnalysisResult> results = new LinkedList<>();
-        project.getSourceRoots().forEach(sr -> analyse(results, sr));
-        return results;
+    public WrongLoggerAnalysis(ProjectRoot project, SourceFilter filter) {
+        this(project, filter, CostProfile.NONE);
     }
 
-    private void analyse(List<AnalysisResult> results, SourceRoot sourceRoot) {
-        try {
-            sourceRoot.parse("", (localPath, absolutePath, parseResult) -> {
-                if (parseResult.isSuccessful()) {
-                    analyse(results, parseResult.getResult().get());
-                }
-                return SourceRoot.Callback.Result.DONT_SAVE;
-            });
-        } catch (IOException e) {
-            System.err.println("Parsing failed for source root " + sourceRoot.getRoot() + ". Reason: " + e.getMessage());
-        }
+    public WrongLoggerAnalysis(ProjectRoot project, SourceFilter filter, CostProfile profile) {
+        super(project, filter, profile);
     }
 
-    private void analyse(List<AnalysisResult> results, CompilationUnit cu) {
-        try {
-            Optional<AnalysisResult> result = cu.accept(new Visitor(), "");
-            if (result != null) {
-                result.ifPresent(ar -> {
-                    ar.setFilePath(cu.getStorage().get().getFileName());
-                    results.add(ar);
-                });
-            }
-        } catch (Exception e) {
-            LOG.info(cu.getStorage().get().getFileName());
-            e.printStackTrace();
-        }
+    @Override
+    public String getDescription() {
+        return DESCRIPTION;
     }
 
+    @Override
+    GenericListVisitorAdapter<AnalysisResult, ?> getVisitor() {
+        return new Visitor();
+    }
 
-    class Visitor extends GenericVisitorAdapter<Optional<AnalysisResult>, String> {
+    class Visitor extends GenericListVisitorAdapter<AnalysisResult, String> {
 
         @Override
-        public Optional<AnalysisResult> visit(ClassOrInterfaceDeclaration n, String arg) {
+        public List<AnalysisResult> visit(ClassOrInterfaceDeclaration n, String arg) {
             String declaredType = n.getName().asString();
             return super.visit(n, declaredType);
         }
 
         @Override
-        public Optional<AnalysisResult> visit(EnumDeclaration n, String arg) {
+        public List<AnalysisResult> visit(EnumDeclaration n, String arg) {
             String declaredType = n.getName().asString();
             return super.visit(n, declaredType);
         }
 
         @Override
-        public Optional<AnalysisResult> visit(MethodCallExpr mc, String surroundingType) {
+        public List<AnalysisResult> visit(MethodCallExpr mc, String surroundingType) {
             if (!mc.getName().asString().equals("getLogger")) {
                 return super.visit(mc, surroundingType);
             }
 
             try {
-                ResolvedMethodDeclaration resolved = mc.resolve();
-                if (!resolved.getQualifiedSignature().equals("org.apache.log4j.Logger.getLogger(java.lang.Class)")) {
+                if (!resolver.isCallOf(mc, GET_LOGGER)) {
                     return super.visit(mc, surroundingType);
                 }
             } catch (UnsolvedSymbolException e) {
-                return result(mc, UNSOLVED, surroundingType);
+                return Collections.singletonList(unsolved(mc, surroundingType));
             }
 
-            Expression argument = mc.getArgument(0);
-            if (!argument.isClassExpr()) {
-                return super.visit(mc, surroundingType);
+            List<AnalysisResult> results = new ArrayList<>();
+            // only getLogger(Class) accepts a class literal
+            if (isWrongClass(mc, surroundingType)) {
+                results.add(result(mc, MESSAGE, surroundingType));
             }
+            lookup(mc, surroundingType).ifPresent(results::add);
+            return results;
+        }
+    }
+
+    private boolean isWrongClass(MethodCallExpr mc, String surroundingType) {
+        Expression argument = mc.getArgument(0);
+        if (!argument.isClassExpr()) {
+            return false;
+        }
+
+        String className = argument.asClassExpr().getType().asClassOrInterfaceType().getNameAsString();
+        return !surroundingType.equals(className);
+    }
+
+    private boolean isInterface(Optional<Node> type) {
+        return type.filter(t -> t instanceof ClassOrInterfaceDeclaration && ((ClassOrInterfaceDeclaration) t).isInterface()).isPresent();
+    }
+
+    /**
+     * Whether the logger is directly assigned to a static, not final field of the class declaring the initializer, like
+     * the bytecode analysis checks it.
+     */
+    private boolean isStoredInNonFinalField(MethodCallExpr mc, Node initializer) {
+        Optional<AssignExpr> assign = mc.getParentNode().filter(p -> p instanceof AssignExpr).map(p -> (AssignExpr) p);
+        Optional<TypeDeclaration> type = initializer.getParentNode().filter(t -> t instanceof TypeDeclaration).map(t -> (TypeDeclaration) t);
+        if (!assign.isPresent() || !type.isPresent()) {
+            return false;
+        }
 
-            String className = argument.asClassExpr().getType().asClassOrInterfaceType().getNameAsString();
-            if (surroundingType.equals(className)) {
-                return Optional.empty();
-            } else {
-                return result(mc, MESSAGE, surroundingType);
+        Expression target = assign.get().getTarget();
+        String name;
+        if (target.isNameExpr()) {
+            name = target.asNameExpr().getNameAsString();
+        } else if (target.isFieldAccessExpr() && target.asFieldAccessExpr().getScope().toString().equals(type.get().getNameAsString())) {
+            name = target.asFieldAccessExpr().getNameAsString();
+        } else {
+            return false;
+        }
+        Optional<FieldDeclaration> field = type.get().getFieldByName(name);
+        return field.isPresent() && field.get().isStatic() && !field.get().isFinal();
+    }
+
+    /**
+     * Checks how often the getLogger call is executed, based on the declaration containing it. Only static final field
+     * initializers (including all fields of interfaces) and static initializer blocks run once per class. A logger looked
+     * up in a static initializer, but stored in a non final field, is reported like in a static non final field.
+     */
+    private Optional<AnalysisResult> lookup(MethodCallExpr mc, String surroundingType) {
+        int loops = 0;
+        Node parent = mc.getParentNode().orElse(null);
+        while (parent != null) {
+            if (parent instanceof ForStmt || parent instanceof ForEachStmt || parent instanceof WhileStmt || parent instanceof DoStmt) {
+                loops++;
+            } else if (parent instanceof LambdaExpr || parent instanceof MethodDeclaration) {
+                return lookupResult(mc, MESSAGE_PER_CALL, SEVERITY_PER_CALL, parent, loops, surroundingType);
+            } else if (parent instanceof ConstructorDeclaration) {
+                return lookupResult(mc, MESSAGE_PER_INSTANCE, SEVERITY_PER_INSTANCE, parent, loops, surroundingType);
+            } else if (parent instanceof InitializerDeclaration) {
+                if (((InitializerDeclaration) parent).isStatic()) {
+                    return isStoredInNonFinalField(mc, parent)
+                            ? lookupResult(mc, MESSAGE_NOT_FINAL, SEVERITY_NOT_FINAL, parent, loops, surroundingType)
+                            : Optional.empty();
+                }
+                return lookupResult(mc, MESSAGE_PER_INSTANCE, SEVERITY_PER_INSTANCE, parent, loops, surroundingType);
+            } else if (parent instanceof FieldDeclaration) {
+                FieldDeclaration field = (FieldDeclaration) parent;
+                // fields of interfaces are implicitly static final
+                if (field.isStatic() && field.isFinal() || isInterface(field.getParentNode())) {
+                    return Optional.empty();
+                } else if (field.isStatic()) {
+                    return lookupResult(mc, MESSAGE_NOT_FINAL, SEVERITY_NOT_FINAL, parent, loops, surroundingType);
+                }
+                return lookupResult(mc, MESSAGE_PER_INSTANCE, SEVERITY_PER_INSTANCE, parent, loops, surroundingType);
             }
+            parent = parent.getParentNode().orElse(null);
         }
+        return Optional.empty();
     }
 
-    private Optional<AnalysisResult> result(MethodCallExpr mc, String message, String surroundingType) {
-        String location = mc.getTokenRange().flatMap(TokenRange::toRange).map(Range::toString).orElse("");
-        String expression = mc.toString();
-        return Optional.of(new AnalysisResult(location, expression, String.format(message, surroundingType)));
+    private Optional<AnalysisResult> lookupResult(MethodCallExpr mc, String message, int severity, Node declaration, int loops, String surroundingType) {
+        // anonymous and local classes are instantiated each time their declaration is executed
+        boolean frequentlyInstantiated = declaration instanceof BodyDeclaration && declaration.getParentNode()
+                .filter(type -> type instanceof ObjectCreationExpr || type.getParentNode().filter(p -> p instanceof LocalClassDeclarationStmt).isPresent())
+                .isPresent();
+        int factor = frequentlyInstantiated && severity != SEVERITY_NOT_FINAL ? FREQUENT_FACTOR : 1;
+        for (int i = 0; i < loops; i++) {
+            factor *= FREQUENT_FACTOR;
+        }
+
+        AnalysisResult result = result(mc, message, surroundingType);
+        result.setSeverity(severity * factor);
+        return Optional.of(result);
     }
 }
@@ -0,0 +1,282 @@
+package com.github.kgeilmann.core.analysis;
+
+import com.github.kgeilmann.core.AnalysisResult;
+import javassist.bytecode.AccessFlag;
+import javassist.bytecode.BadBytecode;
+import javassist.bytecode.ClassFile;
+import javassist.bytecode.CodeAttribute;
+import javassist.bytecode.CodeIterator;
+import javassist.bytecode.ConstPool;
+import javassist.bytecode.LineNumberAttribute;
+import javassist.bytecode.MethodInfo;
+import javassist.bytecode.Opcode;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Bytecode based variant of {@link WrongLoggerAnalysis}. Instead of parsing and symbol solving the sources, it scans
+ * the compiled classes for an {@code invokestatic} of {@code Logger.getLogger(Class)} directly preceded by an
+ * {@code ldc} of a class constant, and for lookups outside of static initializers. No type solver is needed, the line
+ * number tables map the findings back to the sources.
+ */
+public class WrongLoggerBytecodeAnalysis {
+
+    private static final String LOGGER_CLASS = "org.apache.log4j.Logger";
+    private static final String GET_LOGGER = "getLogger";
+    private static final String GET_LOGGER_BY_CLASS = "(Ljava/lang/Class;)Lorg/apache/log4j/Logger;";
+    private static final String GET_LOGGER_BY_NAME = "(Ljava/lang/String;)Lorg/apache/log4j/Logger;";
+
+    private final List<Path> classDirectories;
+    private final Set<String> sourceFiles;
+
+    public WrongLoggerBytecodeAnalysis(List<Path> classDirectories) {
+        this(classDirectories, null);
+    }
+
+    /**
+     * @param sourceFiles paths of the source files to analyse relative to their source root (e.g. com/acme/Foo.java),
+     *                    classes compiled from other files are skipped; null to analyse all classes. Classes without
+     *                    the name of their source file are always analysed.
+     */
+    public WrongLoggerBytecodeAnalysis(List<Path> classDirectories, Set<String> sourceFiles) {
+        this.classDirectories = classDirectories;
+        this.sourceFiles = sourceFiles;
+    }
+
+    public List<AnalysisResult> analyse() {
+        return analyse(0);
+    }
+
+    /**
+     * Like {@link #analyse()}, but stops analysing further classes once at least limit results are found. No limit, if 0.
+     */
+    public List<AnalysisResult> analyse(int limit) {
+        List<AnalysisResult> results = new LinkedList<>();
+        for (Path dir : classDirectories) {
+            analyse(results, dir, limit);
+        }
+        return results;
+    }
+
+    private void analyse(List<AnalysisResult> results, Path classDirectory, int limit) {
+        List<Path> classFiles;
+        try (Stream<Path> files = Files.walk(classDirectory)) {
+            classFiles = files.filter(f -> f.toString().endsWith(".class")).collect(Collectors.toList());
+        } catch (IOException e) {
+            System.err.println("Reading failed for class directory " + classDirectory + ". Reason: " + e.getMessage());
+            return;
+        }
+
+        for (Path classFile : classFiles) {
+            if (limit > 0 && results.size() >= limit) {
+                return;
+            }
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(classFile))) {
+                analyse(results, new ClassFile(new DataInputStream(in)));
+            } catch (IOException | BadBytecode e) {
+                System.err.println("Reading failed for class file " + classFile + ". Reason: " + e.getMessage());
+            }
+        }
+    }
+
+    private void analyse(List<AnalysisResult> results, ClassFile classFile) throws BadBytecode {
+        String sourceFile = sourceFile(classFile);
+        // without a SourceFile attribute (javac -g:none) the class cannot be matched, so it is analysed anyway
+        if (sourceFiles != null && sourceFile != null && !sourceFiles.contains(sourceFile)) {
+            return;
+        }
+
+        ConstPool constPool = classFile.getConstPool();
+        String surroundingType = surroundingType(classFile.getName());
+        // javac copies instance field initializers into each constructor, so the same finding is reported once per
+        // line. Without line numbers the copies cannot be told apart from other lookups, then all of them are kept.
+        Map<String, AnalysisResult> classResults = new LinkedHashMap<>();
+        Consumer<AnalysisResult> add = r -> classResults.putIfAbsent(
+                r.getLocation().isEmpty() ? "#" + classResults.size() : r.getLocation() + "\t" + r.getMessage(), r);
+
+        for (MethodInfo method : classFile.getMethods()) {
+            CodeAttribute code = method.getCodeAttribute();
+            if (code == null) {
+                continue;
+            }
+
+            List<int[]> loops = loops(code);
+            String loggerClass = null;
+            CodeIterator it = code.iterator();
+            while (it.hasNext()) {
+                int pos = it.next();
+                int opcode = it.byteAt(pos);
+                if (opcode == Opcode.INVOKESTATIC && isGetLogger(constPool, it.u16bitAt(pos + 1))) {
+                    String descriptor = constPool.getMethodrefType(it.u16bitAt(pos + 1));
+                    if (GET_LOGGER_BY_CLASS.equals(descriptor) && loggerClass != null && !surroundingType.equals(loggerClass)) {
+                        add.accept(result(classFile, method, pos, loggerClass, WrongLoggerAnalysis.MESSAGE));
+                    }
+                    lookup(classFile, method, it, pos, loops, loggerClass).ifPresent(add);
+                }
+                loggerClass = classConstant(constPool, it, pos, opcode);
+            }
+        }
+        results.addAll(classResults.values());
+    }
+
+    /**
+     * Bytecode counterpart of the source based check of the lookup: static initializers run once per class,
+     * constructors once per instance, all other methods (including lambda bodies) on each call.
+     */
+    private Optional<AnalysisResult> lookup(ClassFile classFile, MethodInfo method, CodeIterator it, int pos, List<int[]> loops, String loggerClass) throws BadBytecode {
+        String message;
+        int severity;
+        if (MethodInfo.nameClinit.equals(method.getName())) {
+            if (!isStoredInNonFinalField(classFile, it)) {
+                return Optional.empty();
+            }
+            message = WrongLoggerAnalysis.MESSAGE_NOT_FINAL;
+            severity = WrongLoggerAnalysis.SEVERITY_NOT_FINAL;
+        } else if (MethodInfo.nameInit.equals(method.getName())) {
+            message = WrongLoggerAnalysis.MESSAGE_PER_INSTANCE;
+            severity = WrongLoggerAnalysis.SEVERITY_PER_INSTANCE;
+        } else {
+            message = WrongLoggerAnalysis.MESSAGE_PER_CALL;
+            severity = WrongLoggerAnalysis.SEVERITY_PER_CALL;
+        }
+
+        // anonymous (Outer$1) and local (Outer$1Local) classes are instantiated each time their declaration is executed
+        boolean frequentlyInstantiated = classFile.getName().matches(".*\\$\\d+\\w*");
+        if (frequentlyInstantiated && severity != WrongLoggerAnalysis.SEVERITY_NOT_FINAL) {
+            severity *= WrongLoggerAnalysis.FREQUENT_FACTOR;
+        }
+        for (int[] loop : loops) {
+            if (loop[0] <= pos && pos < loop[1]) {
+                severity *= WrongLoggerAnalysis.FREQUENT_FACTOR;
+            }
+        }
+
+        AnalysisResult result = result(classFile, method, pos, loggerClass, message);
+        result.setSeverity(severity);
+        return Optional.of(result);
+    }
+
+    private boolean isStoredInNonFinalField(ClassFile classFile, CodeIterator it) {
+        int next = it.lookAhead();
+        if (next >= it.getCodeLength() || it.byteAt(next) != Opcode.PUTSTATIC) {
+            return false;
+        }
+
+        ConstPool constPool = classFile.getConstPool();
+        int index = it.u16bitAt(next + 1);
+        if (!classFile.getName().equals(constPool.getFieldrefClassName(index))) {
+            return false;
+        }
+        String fieldName = constPool.getFieldrefName(index);
+        return classFile.getFields().stream()
+                .filter(f -> fieldName.equals(f.getName()))
+                .anyMatch(f -> (f.getAccessFlags() & AccessFlag.FINAL) == 0);
+    }
+
+    /**
+     * Code ranges [target, branch) of all backward branches, each of them is a loop.
+     */
+    private List<int[]> loops(CodeAttribute code) throws BadBytecode {
+        List<int[]> loops = new ArrayList<>();
+        CodeIterator it = code.iterator();
+        while (it.hasNext()) {
+            int pos = it.next();
+            int opcode = it.byteAt(pos);
+            int offset;
+            if ((opcode >= Opcode.IFEQ && opcode <= Opcode.GOTO) || opcode == Opcode.IFNULL || opcode == Opcode.IFNONNULL) {
+                offset = it.s16bitAt(pos + 1);
+            } else if (opcode == Opcode.GOTO_W) {
+                offset = it.s32bitAt(pos + 1);
+            } else {
+                continue;
+            }
+            if (offset < 0) {
+                loops.add(new int[]{pos + offset, pos});
+            }
+        }
+        return loops;
+    }
+
+    private String classConstant(ConstPool constPool, CodeIterator it, int pos, int opcode) {
+        int index;
+        if (opcode == Opcode.LDC) {
+            index = it.byteAt(pos + 1);
+        } else if (opcode == Opcode.LDC_W) {
+            index = it.u16bitAt(pos + 1);
+        } else {
+            return null;
+        }
+        return constPool.getTag(index) == ConstPool.CONST_Class ? constPool.getClassInfo(index) : null;
+    }
+
+    private boolean isGetLogger(ConstPool constPool, int index) {
+        if (constPool.getTag(index) != ConstPool.CONST_Methodref
+                || !LOGGER_CLASS.equals(constPool.getMethodrefClassName(index))
+                || !GET_LOGGER.equals(constPool.getMethodrefName(index))) {
+            return false;
+        }
+        String descriptor = constPool.getMethodrefType(index);
+        return GET_LOGGER_BY_CLASS.equals(descriptor) || GET_LOGGER_BY_NAME.equals(descriptor);
+    }
+
+    /**
+     * Path of the source file relative to the source root, null if the class file does not contain its name.
+     */
+    private String sourceFile(ClassFile classFile) {
+        if (classFile.getSourceFile() == null) {
+            return null;
+        }
+        String className = classFile.getName();
+        String packagePath = className.substring(0, className.lastIndexOf('.') + 1).replace('.', '/');
+        return packagePath + classFile.getSourceFile();
+    }
+
+    /**
+     * The source analysis uses the nearest named type declaration as surrounding type, so anonymous classes (Outer$1)
+     * are mapped to their enclosing class.
+     */
+    private String surroundingType(String className) {
+        String name = className;
+        while (name.matches(".*\\$\\d+")) {
+            name = name.substring(0, name.lastIndexOf('$'));
+        }
+        return name;
+    }
+
+    private AnalysisResult result(ClassFile classFile, MethodInfo method, int pos, String loggerClass, String message) {
+        LineNumberAttribute lines = (LineNumberAttribute) method.getCodeAttribute().getAttribute(LineNumberAttribute.tag);
+        int line = lines == null ? 0 : lines.toLineNumber(pos);
+        String location = line == 0 ? "" : "(line " + line + ")";
+        String expression = "Logger.getLogger(" + (loggerClass != null ? simpleName(loggerClass) + ".class" : "...") + ")";
+        String surroundingType = simpleName(surroundingType(classFile.getName()));
+        AnalysisResult result = new AnalysisResult(location, expression, String.format(message, surroundingType));
+        result.setFilePath(classFile.getSourceFile() != null ? classFile.getSourceFile() : classFile.getName());
+        String sourceFile = sourceFile(classFile);
+        result.setSourcePath(sourceFile != null ? Paths.get(sourceFile) : null);
+        result.setLine(line);
+        return result;
+    }
+
+    private static String simpleName(String className) {
+        String name = className.substring(className.lastIndexOf('.') + 1);
+        name = name.substring(name.lastIndexOf('$') + 1);
+        // local classes are named Outer$1Local
+        return name.replaceFirst("^\\d+", "");
+    }
+}
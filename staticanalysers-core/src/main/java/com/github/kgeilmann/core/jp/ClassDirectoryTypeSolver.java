@@ -0,0 +1,80 @@
+package com.github.kgeilmann.core.jp;
+
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.symbolsolver.javassistmodel.JavassistFactory;
+import com.github.javaparser.symbolsolver.model.resolution.SymbolReference;
+import com.github.javaparser.symbolsolver.model.resolution.TypeSolver;
+import javassist.ClassPool;
+import javassist.NotFoundException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Like the JarTypeSolver of JavaParser, but for a directory of compiled classes, e.g. the target/classes of another
+ * module of the same reactor build. Only the classes of the directory are solved, but the whole classpath is needed to
+ * read them, e.g. the types of their fields.
+ */
+public class ClassDirectoryTypeSolver implements TypeSolver {
+
+    private final ClassPool classPool = new ClassPool(false);
+    // canonical name (as asked by the symbol solver) to binary name (as known by javassist)
+    private final Map<String, String> classNames = new HashMap<>();
+    private TypeSolver parent;
+
+    public ClassDirectoryTypeSolver(Path directory) throws IOException {
+        this(directory, Collections.emptyList());
+    }
+
+    /**
+     * @param classpath jars and class directories, which the classes of the directory depend on
+     */
+    public ClassDirectoryTypeSolver(Path directory, List<Path> classpath) throws IOException {
+        try {
+            classPool.appendClassPath(directory.toString());
+            for (Path entry : classpath) {
+                classPool.appendClassPath(entry.toString());
+            }
+        } catch (NotFoundException e) {
+            throw new IOException("Cannot read classpath of class directory " + directory, e);
+        }
+        classPool.appendSystemPath();
+
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.filter(f -> f.toString().endsWith(".class")).forEach(f -> {
+                String path = directory.relativize(f).toString();
+                String binaryName = path.substring(0, path.length() - ".class".length()).replace(f.getFileSystem().getSeparator(), ".");
+                classNames.put(binaryName.replace('$', '.'), binaryName);
+            });
+        }
+    }
+
+    @Override
+    public TypeSolver getParent() {
+        return parent;
+    }
+
+    @Override
+    public void setParent(TypeSolver parent) {
+        this.parent = parent;
+    }
+
+    @Override
+    public SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveType(String name) {
+        String binaryName = classNames.get(name);
+        if (binaryName == null) {
+            return SymbolReference.unsolved(ResolvedReferenceTypeDeclaration.class);
+        }
+        try {
+            return SymbolReference.solved(JavassistFactory.toTypeDeclaration(classPool.get(binaryName), getRoot()));
+        } catch (NotFoundException e) {
+            throw new IllegalStateException("Class " + binaryName + " disappeared from the class directory", e);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.github.kgeilmann.core.jp;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.utils.SourceRoot;
+import com.github.kgeilmann.core.CostProfile;
+import com.github.kgeilmann.core.SourceFilter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Parses the accepted files of a source root in parallel, the files with the longest parse time according to the
+ * {@link CostProfile} first, and hands the compilation units to the analysis in the calling thread as soon as they are
+ * parsed. The analysis itself stays single threaded, because the symbol solver is not thread safe, so only the parse
+ * time of a file is recorded and used for the order.
+ * <p>
+ * The parse tasks read files, so they run in an own thread pool per source root instead of the common fork join pool,
+ * which is shut down as soon as the source root is done or the parsing fails. Only a few files more than there are
+ * threads are parsed ahead, to limit the memory used by parsed but not yet analysed compilation units.
+ */
+public class SourceScheduler {
+
+    private final SourceFilter filter;
+    private final CostProfile profile;
+    private final int threads = Runtime.getRuntime().availableProcessors();
+    private final int window = threads * 2;
+
+    public SourceScheduler(SourceFilter filter, CostProfile profile) {
+        this.filter = filter;
+        this.profile = profile;
+    }
+
+    /**
+     * @param done checked before parsing and after each analysed file, the remaining files are skipped once it returns true
+     */
+    public void parse(SourceRoot sourceRoot, BooleanSupplier done, Consumer<CompilationUnit> analysis) throws IOException {
+        if (done.getAsBoolean()) {
+            return;
+        }
+
+        Map<Path, Long> sizes = new HashMap<>();
+        Map<Path, Long> estimates = new HashMap<>();
+        for (Path file : filter.collect(sourceRoot.getRoot())) {
+            long size = Files.size(file);
+            sizes.put(file, size);
+            estimates.put(file, profile.estimate(file, size));
+        }
+        List<Path> files = new ArrayList<>(estimates.keySet());
+        files.sort(Comparator.comparing(estimates::get).reversed());
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "staticanalysers-parser");
+            t.setDaemon(true);
+            return t;
+        });
+        CompletionService<Parsed> parsing = new ExecutorCompletionService<>(executor);
+        Iterator<Path> next = files.iterator();
+        int running = 0;
+        for (; running < window && next.hasNext(); running++) {
+            Path file = next.next();
+            parsing.submit(() -> parse(sourceRoot, file));
+        }
+
+        try {
+            for (; running > 0; running--) {
+                Parsed parsed = parsing.take().get();
+                if (parsed.cu != null) {
+                    analysis.accept(parsed.cu);
+                }
+                profile.record(parsed.file, sizes.get(parsed.file), parsed.parseMillis);
+                if (done.getAsBoolean()) {
+                    return;
+                }
+                if (next.hasNext()) {
+                    Path file = next.next();
+                    parsing.submit(() -> parse(sourceRoot, file));
+                    running++;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IOException("Parsing failed for source root " + sourceRoot.getRoot(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Parsed parse(SourceRoot sourceRoot, Path file) {
+        long start = System.nanoTime();
+        CompilationUnit cu = null;
+        try {
+            // a parser instance must not be shared between threads
+            ParseResult<CompilationUnit> result = new JavaParser(sourceRoot.getParserConfiguration()).parse(file);
+            cu = result.isSuccessful() ? result.getResult().orElse(null) : null;
+        } catch (IOException e) {
+            System.err.println("Parsing failed for " + file + ". Reason: " + e.getMessage());
+        }
+        return new Parsed(file, cu, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static class Parsed {
+        private final Path file;
+        private final CompilationUnit cu;
+        private final long parseMillis;
+
+        private Parsed(Path file, CompilationUnit cu, long parseMillis) {
+            this.file = file;
+            this.cu = cu;
+            this.parseMillis = parseMillis;
+        }
+    }
+}
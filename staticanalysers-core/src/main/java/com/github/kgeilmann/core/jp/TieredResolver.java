@@ -0,0 +1,369 @@
+package com.github.kgeilmann.core.jp;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.ImportDeclaration;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.BodyDeclaration;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.EnumDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.expr.BinaryExpr;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.FieldAccessExpr;
+import com.github.javaparser.ast.expr.LambdaExpr;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.expr.ObjectCreationExpr;
+import com.github.javaparser.ast.nodeTypes.NodeWithParameters;
+import com.github.javaparser.ast.nodeTypes.NodeWithStatements;
+import com.github.javaparser.ast.stmt.CatchClause;
+import com.github.javaparser.ast.stmt.ForEachStmt;
+import com.github.javaparser.ast.stmt.ForStmt;
+import com.github.javaparser.ast.stmt.Statement;
+import com.github.javaparser.ast.stmt.TryStmt;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import com.github.javaparser.ast.type.Type;
+import com.github.javaparser.ast.type.UnknownType;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Decides whether a method call is one of the given log4j methods. The cheap tier classifies the call from the file
+ * alone: single type imports, field, parameter and local variable declarations and fully qualified names.
+ * Only if that is ambiguous, e.g. the receiver is an inherited field or its type is imported on demand, the call is
+ * resolved by the symbol solver. String concatenations are decided the same way. The number of calls and
+ * concatenations decided by each tier is counted.
+ * <p>
+ * An instance is meant to be used by a single analysis thread.
+ */
+public class TieredResolver {
+
+    private static final String LOGGER = "org.apache.log4j.Logger";
+    private static final String CATEGORY = "org.apache.log4j.Category";
+    private static final Set<String> LOG4J_TYPES = Set.of(LOGGER, CATEGORY);
+    // loggers of other frameworks, which are neither log4j loggers nor subclasses of them
+    private static final Set<String> OTHER_LOGGERS = Set.of(
+            "java.util.logging.Logger",
+            "org.slf4j.Logger",
+            "org.apache.logging.log4j.Logger",
+            "org.apache.commons.logging.Log"
+    );
+    private static final Set<String> LEVEL_METHODS = Set.of("debug", "info", "warn", "error", "fatal");
+    // marks a variable whose type cannot be decided from the file, e.g. a lambda parameter or an inherited field
+    private static final Type UNDECIDABLE = new UnknownType();
+
+    private int syntactic;
+    private int solved;
+
+    /**
+     * @param qualifiedSignatures qualified signatures as returned by the symbol solver, but without type arguments, e.g.
+     *                            {@code org.apache.log4j.Category.debug(java.lang.Object)}
+     * @throws com.github.javaparser.resolution.UnsolvedSymbolException if the call is ambiguous and cannot be solved
+     */
+    public boolean isCallOf(MethodCallExpr mc, Set<String> qualifiedSignatures) {
+        Boolean decided = decide(mc, qualifiedSignatures);
+        if (decided != null) {
+            syntactic++;
+            return decided;
+        }
+
+        boolean result = qualifiedSignatures.contains(erasure(mc.resolve().getQualifiedSignature()));
+        solved++;
+        return result;
+    }
+
+    /**
+     * Decision of the cheap tier, null if the call is ambiguous from the file alone.
+     */
+    Boolean decide(MethodCallExpr mc, Set<String> qualifiedSignatures) {
+        String receiver = receiverType(mc);
+        if (receiver != null && OTHER_LOGGERS.contains(receiver)) {
+            return false;
+        }
+        String signature = receiver != null && LOG4J_TYPES.contains(receiver) ? log4jSignature(mc) : null;
+        return signature != null ? qualifiedSignatures.contains(signature) : null;
+    }
+
+    /**
+     * The signature without type arguments. Raw parameter types of methods read from jars are solved with the type
+     * parameters of their type, e.g. {@code getLogger(java.lang.Class<T>)}.
+     */
+    static String erasure(String signature) {
+        String erased = signature;
+        String previous;
+        do {
+            previous = erased;
+            erased = previous.replaceAll("<[^<>]*>", "");
+        } while (!erased.equals(previous));
+        return erased;
+    }
+
+    /**
+     * Whether the + builds a string. It does, if an operand is a string literal or a concatenation containing one,
+     * otherwise the type is solved by the symbol solver.
+     *
+     * @throws com.github.javaparser.resolution.UnsolvedSymbolException if the type of the operands cannot be solved
+     */
+    public boolean isStringConcatenation(BinaryExpr expr) {
+        if (expr.getOperator() != BinaryExpr.Operator.PLUS) {
+            return false;
+        }
+        if (hasStringLiteral(expr)) {
+            syntactic++;
+            return true;
+        }
+
+        boolean result = "java.lang.String".equals(expr.calculateResolvedType().describe());
+        solved++;
+        return result;
+    }
+
+    private boolean hasStringLiteral(BinaryExpr concat) {
+        for (Expression side : List.of(concat.getLeft(), concat.getRight())) {
+            Expression e = side;
+            while (e.isEnclosedExpr()) {
+                e = e.asEnclosedExpr().getInner();
+            }
+            if (e.isStringLiteralExpr()
+                    || e.isBinaryExpr() && e.asBinaryExpr().getOperator() == BinaryExpr.Operator.PLUS && hasStringLiteral(e.asBinaryExpr())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Number of calls and concatenations decided from imports and declarations.
+     */
+    public int getSyntacticCount() {
+        return syntactic;
+    }
+
+    /**
+     * Number of calls and concatenations decided by the symbol solver.
+     */
+    public int getSolverCount() {
+        return solved;
+    }
+
+    /**
+     * Qualified signature of a logger method called on a log4j logger, null if it cannot be told from the arguments.
+     */
+    private String log4jSignature(MethodCallExpr mc) {
+        String name = mc.getNameAsString();
+        List<Expression> arguments = mc.getArguments();
+        if ("getLogger".equals(name)) {
+            if (arguments.size() != 1) {
+                return null;
+            } else if (arguments.get(0).isClassExpr()) {
+                return LOGGER + ".getLogger(java.lang.Class)";
+            } else if (arguments.get(0).isStringLiteralExpr()) {
+                return LOGGER + ".getLogger(java.lang.String)";
+            }
+            return null;
+        }
+
+        String declaringType;
+        if ("trace".equals(name)) {
+            declaringType = LOGGER;
+        } else if (LEVEL_METHODS.contains(name)) {
+            declaringType = CATEGORY;
+        } else {
+            return null;
+        }
+        // the message is an Object, the only overload with two parameters takes a Throwable
+        if (arguments.size() == 1) {
+            return declaringType + "." + name + "(java.lang.Object)";
+        } else if (arguments.size() == 2) {
+            return declaringType + "." + name + "(java.lang.Object, java.lang.Throwable)";
+        }
+        return null;
+    }
+
+    /**
+     * Qualified name of the static type of the receiver, null if it cannot be decided from the file.
+     */
+    private String receiverType(MethodCallExpr mc) {
+        CompilationUnit cu = mc.findCompilationUnit().orElse(null);
+        if (cu == null) {
+            return null;
+        }
+
+        Optional<Expression> scope = mc.getScope();
+        if (!scope.isPresent()) {
+            // methods of the surrounding types, including inherited ones, shadow static imports
+            return null;
+        }
+
+        Expression receiver = scope.get();
+        if (receiver.isNameExpr()) {
+            String name = receiver.asNameExpr().getNameAsString();
+            Type declared = variableType(name, receiver);
+            if (declared == null || declared == UNDECIDABLE) {
+                // the type of a static call, an inherited variable is not expected to be named like an imported type
+                return hasStaticImport(cu, name) ? null : qualify(name, cu);
+            }
+            return declared.isClassOrInterfaceType() ? qualify(nameOf(declared.asClassOrInterfaceType()), cu) : null;
+        } else if (receiver.isFieldAccessExpr()) {
+            FieldAccessExpr access = receiver.asFieldAccessExpr();
+            if (access.getScope().isThisExpr()) {
+                if (access.getScope().asThisExpr().getClassExpr().isPresent()) {
+                    // Outer.this.field is a field of an enclosing type, not of the nearest one
+                    return null;
+                }
+                Type declared = fieldType(access.getNameAsString(), access);
+                return declared != null && declared.isClassOrInterfaceType() ? qualify(nameOf(declared.asClassOrInterfaceType()), cu) : null;
+            }
+            // fully qualified name of the type of a static call
+            String qualified = access.toString();
+            return LOG4J_TYPES.contains(qualified) || OTHER_LOGGERS.contains(qualified) ? qualified : null;
+        } else if (receiver.isMethodCallExpr()) {
+            // Logger.getLogger(X.class).debug(...), every getLogger method of log4j returns a Logger
+            MethodCallExpr lookup = receiver.asMethodCallExpr();
+            return "getLogger".equals(lookup.getNameAsString()) && LOGGER.equals(receiverType(lookup)) ? LOGGER : null;
+        }
+        return null;
+    }
+
+    /**
+     * Declared type of the variable visible at the given node, null if there is no such variable in the file and
+     * {@link #UNDECIDABLE} if the variable might be inherited from a type declared elsewhere.
+     */
+    private Type variableType(String name, Node node) {
+        Node child = node;
+        Node parent = node.getParentNode().orElse(null);
+        while (parent != null) {
+            Type declared = null;
+            if (parent instanceof NodeWithStatements) {
+                // blocks and switch entries, only the statements before the current one are visible
+                for (Statement statement : ((NodeWithStatements<?>) parent).getStatements()) {
+                    if (statement == child) {
+                        break;
+                    }
+                    if (statement.isExpressionStmt()) {
+                        declared = declaredType(name, statement.asExpressionStmt().getExpression());
+                    }
+                    if (declared != null) {
+                        break;
+                    }
+                }
+            } else if (parent instanceof ForStmt) {
+                declared = ((ForStmt) parent).getInitialization().stream()
+                        .map(e -> declaredType(name, e)).filter(t -> t != null).findFirst().orElse(null);
+            } else if (parent instanceof ForEachStmt) {
+                declared = declaredType(name, ((ForEachStmt) parent).getVariable());
+            } else if (parent instanceof TryStmt) {
+                declared = ((TryStmt) parent).getResources().stream()
+                        .map(e -> declaredType(name, e)).filter(t -> t != null).findFirst().orElse(null);
+            } else if (parent instanceof CatchClause) {
+                Parameter parameter = ((CatchClause) parent).getParameter();
+                declared = parameter.getNameAsString().equals(name) ? parameter.getType() : null;
+            } else if (parent instanceof LambdaExpr) {
+                declared = ((LambdaExpr) parent).getParameters().stream()
+                        .filter(p -> p.getNameAsString().equals(name)).map(Parameter::getType).findFirst().orElse(null);
+            } else if (parent instanceof NodeWithParameters) {
+                declared = ((NodeWithParameters<?>) parent).getParameterByName(name).map(Parameter::getType).orElse(null);
+            }
+            if (declared == null && isTypeBody(parent, child)) {
+                return fieldType(name, child);
+            }
+            if (declared != null) {
+                return declared;
+            }
+            child = parent;
+            parent = parent.getParentNode().orElse(null);
+        }
+        return null;
+    }
+
+    /**
+     * Declared type of the field of the type declaring the given member, null if no type of the file declares such a
+     * field and {@link #UNDECIDABLE} if it might be inherited.
+     */
+    private Type fieldType(String name, Node member) {
+        Node child = member;
+        Node type = member.getParentNode().orElse(null);
+        while (type != null && !isTypeBody(type, child)) {
+            child = type;
+            type = type.getParentNode().orElse(null);
+        }
+        if (type == null) {
+            return null;
+        }
+
+        List<BodyDeclaration<?>> members = type instanceof TypeDeclaration
+                ? ((TypeDeclaration<?>) type).getMembers()
+                : ((ObjectCreationExpr) type).getAnonymousClassBody().orElseThrow(IllegalStateException::new);
+        for (BodyDeclaration<?> declaration : members) {
+            if (declaration instanceof FieldDeclaration) {
+                for (VariableDeclarator variable : ((FieldDeclaration) declaration).getVariables()) {
+                    if (variable.getNameAsString().equals(name)) {
+                        return variable.getType();
+                    }
+                }
+            }
+        }
+
+        if (type instanceof ObjectCreationExpr || isSubtype(type)) {
+            return UNDECIDABLE;
+        }
+        // fields of enclosing types are visible in nested types
+        return variableType(name, type);
+    }
+
+    private boolean isTypeBody(Node type, Node child) {
+        return type instanceof TypeDeclaration || type instanceof ObjectCreationExpr && child instanceof BodyDeclaration;
+    }
+
+    private boolean isSubtype(Node type) {
+        if (type instanceof ClassOrInterfaceDeclaration) {
+            ClassOrInterfaceDeclaration declaration = (ClassOrInterfaceDeclaration) type;
+            return declaration.getExtendedTypes().isNonEmpty() || declaration.getImplementedTypes().isNonEmpty();
+        } else if (type instanceof EnumDeclaration) {
+            return ((EnumDeclaration) type).getImplementedTypes().isNonEmpty();
+        }
+        return false;
+    }
+
+    private Type declaredType(String name, Expression expression) {
+        if (!expression.isVariableDeclarationExpr()) {
+            return null;
+        }
+        return expression.asVariableDeclarationExpr().getVariables().stream()
+                .filter(v -> v.getNameAsString().equals(name))
+                .map(VariableDeclarator::getType)
+                .findFirst().orElse(null);
+    }
+
+    /**
+     * Qualified name of the given type name, null if it cannot be decided from the imports. Only single type imports
+     * decide, because on demand imports might be shadowed by types of the same package.
+     */
+    private String qualify(String name, CompilationUnit cu) {
+        if (name.contains(".")) {
+            return name;
+        }
+        if (cu.findAll(TypeDeclaration.class).stream().anyMatch(t -> t.getNameAsString().equals(name))) {
+            return null;
+        }
+        return cu.getImports().stream()
+                .filter(i -> !i.isStatic() && !i.isAsterisk())
+                .filter(i -> i.getName().getIdentifier().equals(name))
+                .map(ImportDeclaration::getNameAsString)
+                .findFirst().orElse(null);
+    }
+
+    private boolean hasStaticImport(CompilationUnit cu, String name) {
+        return cu.getImports().stream()
+                .filter(ImportDeclaration::isStatic)
+                .anyMatch(i -> i.isAsterisk() || i.getName().getIdentifier().equals(name));
+    }
+
+    private String nameOf(ClassOrInterfaceType type) {
+        return type.getScope().map(s -> nameOf(s) + ".").orElse("") + type.getNameAsString();
+    }
+}
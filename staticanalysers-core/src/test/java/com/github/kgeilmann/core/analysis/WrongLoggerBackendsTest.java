@@ -0,0 +1,81 @@
+package com.github.kgeilmann.core.analysis;
+
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.JarTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.JavaParserTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import com.github.javaparser.utils.ProjectRoot;
+import com.github.kgeilmann.core.AnalysisResult;
+import org.apache.log4j.Logger;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Compiles the samples in src/test/resources/backends and checks, that the source and the bytecode based wrong logger
+ * analyses report the same findings: same lines, messages and severities.
+ */
+public class WrongLoggerBackendsTest {
+
+    private static final Path SAMPLES = Paths.get("src/test/resources/backends");
+    private static final Path CLASSES = Paths.get("target/backends-classes");
+
+    private static Path log4j;
+
+    @BeforeClass
+    public static void compileSamples() throws Exception {
+        log4j = Paths.get(Logger.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        Files.createDirectories(CLASSES);
+
+        List<String> arguments = new ArrayList<>(List.of("-g", "-d", CLASSES.toString(), "-cp", log4j.toString()));
+        for (Path file : samples()) {
+            arguments.add(file.toString());
+        }
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertEquals("compilation of the samples failed", 0, compiler.run(null, null, null, arguments.toArray(new String[0])));
+    }
+
+    private static List<Path> samples() throws IOException {
+        try (Stream<Path> files = Files.walk(SAMPLES)) {
+            return files.filter(f -> f.toString().endsWith(".java")).collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    public void backendsReportTheSameFindings() throws IOException {
+        CombinedTypeSolver typeSolver = new CombinedTypeSolver(new ReflectionTypeSolver(false));
+        typeSolver.add(new JavaParserTypeSolver(SAMPLES));
+        typeSolver.add(new JarTypeSolver(log4j));
+        ProjectRoot project = new ProjectRoot(SAMPLES, new ParserConfiguration().setSymbolResolver(new JavaSymbolSolver(typeSolver)));
+        project.addSourceRoot(SAMPLES);
+
+        List<String> source = describe(new WrongLoggerAnalysis(project).analyse());
+        List<String> bytecode = describe(new WrongLoggerBytecodeAnalysis(Collections.singletonList(CLASSES)).analyse());
+
+        assertFalse(source.isEmpty());
+        assertEquals(String.join("\n", source), String.join("\n", bytecode));
+    }
+
+    private List<String> describe(List<AnalysisResult> results) {
+        return results.stream()
+                .map(r -> r.getFilePath() + ":" + r.getLine() + " [" + r.getSeverity() + "] " + r.getMessage())
+                .sorted()
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,129 @@
+package com.github.kgeilmann.core.jp;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.comments.Comment;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.stmt.ExpressionStmt;
+import com.github.javaparser.resolution.UnsolvedSymbolException;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.JarTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.JavaParserTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import org.apache.log4j.Logger;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares the decisions of the syntactic tier with the symbol solver on the samples in src/test/resources/samples.
+ * A comment before a statement of the samples tells which tier must decide the logger call of the statement.
+ */
+public class TieredResolverTest {
+
+    private static final Path SAMPLES = Paths.get("src/test/resources/samples");
+    private static final Set<String> LOG4J_METHODS = Set.of(
+            "org.apache.log4j.Logger.getLogger(java.lang.Class)",
+            "org.apache.log4j.Logger.getLogger(java.lang.String)",
+            "org.apache.log4j.Logger.trace(java.lang.Object)",
+            "org.apache.log4j.Category.debug(java.lang.Object)",
+            "org.apache.log4j.Category.info(java.lang.Object)",
+            "org.apache.log4j.Category.warn(java.lang.Object)",
+            "org.apache.log4j.Category.error(java.lang.Object)"
+    );
+
+    private static List<MethodCallExpr> calls;
+
+    @BeforeClass
+    public static void parseSamples() throws Exception {
+        Path log4j = Paths.get(Logger.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        CombinedTypeSolver typeSolver = new CombinedTypeSolver(new ReflectionTypeSolver(false));
+        typeSolver.add(new JavaParserTypeSolver(SAMPLES));
+        typeSolver.add(new JarTypeSolver(log4j));
+        JavaParser parser = new JavaParser(new ParserConfiguration().setSymbolResolver(new JavaSymbolSolver(typeSolver)));
+
+        calls = new ArrayList<>();
+        for (Path file : samples()) {
+            ParseResult<CompilationUnit> result = parser.parse(file);
+            assertTrue(file + " " + result.getProblems(), result.isSuccessful());
+            calls.addAll(result.getResult().get().findAll(MethodCallExpr.class));
+        }
+        assertFalse(calls.isEmpty());
+    }
+
+    private static List<Path> samples() throws IOException {
+        try (Stream<Path> files = Files.walk(SAMPLES)) {
+            return files.filter(f -> f.toString().endsWith(".java")).collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    public void syntacticTierAgreesWithSymbolSolver() {
+        TieredResolver resolver = new TieredResolver();
+        for (MethodCallExpr mc : calls) {
+            String solved;
+            try {
+                solved = TieredResolver.erasure(mc.resolve().getQualifiedSignature());
+            } catch (UnsolvedSymbolException e) {
+                // e.g. fields of anonymous classes, which the symbol solver does not find
+                assertNotNull(describe(mc) + " is neither solved nor decided", resolver.decide(mc, LOG4J_METHODS));
+                continue;
+            }
+            Boolean decided = resolver.decide(mc, Set.of(solved));
+            if (decided != null) {
+                // calls on other loggers are never log4j calls, calls on log4j loggers must have the solved signature
+                assertEquals(describe(mc) + " solved as " + solved, solved.startsWith("org.apache.log4j."), decided);
+            }
+        }
+    }
+
+    @Test
+    public void expectedTierDecides() {
+        TieredResolver resolver = new TieredResolver();
+        int expectations = 0;
+        for (MethodCallExpr mc : calls) {
+            String expected = expectedTier(mc);
+            if (expected == null) {
+                continue;
+            }
+            Boolean decided = resolver.decide(mc, LOG4J_METHODS);
+            assertEquals(describe(mc), expected, decided == null ? "solver" : "syntactic");
+            expectations++;
+        }
+        assertTrue(expectations > 0);
+    }
+
+    /**
+     * "syntactic" or "solver" if the call is the expression of a statement commented like this, null otherwise.
+     */
+    private String expectedTier(MethodCallExpr mc) {
+        return mc.getParentNode()
+                .filter(p -> p instanceof ExpressionStmt)
+                .flatMap(p -> ((ExpressionStmt) p).getComment())
+                .map(Comment::getContent)
+                .map(String::trim)
+                .orElse(null);
+    }
+
+    private String describe(MethodCallExpr mc) {
+        return mc.findCompilationUnit().flatMap(CompilationUnit::getPrimaryTypeName).orElse("?")
+                + " line " + mc.getBegin().map(p -> p.line).orElse(-1) + ": " + mc;
+    }
+}
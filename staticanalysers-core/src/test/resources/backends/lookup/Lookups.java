@@ -0,0 +1,84 @@
+package lookup;
+
+import org.apache.log4j.Logger;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Lookups of loggers in all kinds of declarations, each of them should be reported the same way by the source and the
+ * bytecode analysis.
+ */
+public class Lookups {
+
+    private static final Logger LOG = Logger.getLogger(Lookups.class);
+    private static final Logger WRONG = Logger.getLogger(Other.class);
+    private static final Logger BY_NAME = Logger.getLogger("lookup");
+    private static Logger notFinal = Logger.getLogger(Lookups.class);
+    private static Logger assigned;
+    private static final Logger ASSIGNED_FINAL;
+    private static final Supplier<Logger> SUPPLIER = () -> Logger.getLogger(Lookups.class);
+
+    private final Logger perInstance = Logger.getLogger(Lookups.class);
+    private Logger initialized;
+
+    static {
+        assigned = Logger.getLogger(Lookups.class);
+        ASSIGNED_FINAL = Logger.getLogger(Lookups.class);
+    }
+
+    {
+        initialized = Logger.getLogger(Lookups.class);
+    }
+
+    Lookups() {
+    }
+
+    Lookups(int unused) {
+        Logger logger = Logger.getLogger(Lookups.class);
+    }
+
+    void perCall() {
+        Logger logger = Logger.getLogger(Lookups.class);
+    }
+
+    void inLoops(List<String> names) {
+        for (String name : names) {
+            Logger logger = Logger.getLogger(name);
+            for (int i = 0; i < 2; i++) {
+                Logger nested = Logger.getLogger(Other.class);
+            }
+        }
+    }
+
+    Runnable anonymous() {
+        return new Runnable() {
+            private final Logger field = Logger.getLogger(Lookups.class);
+
+            @Override
+            public void run() {
+                Logger logger = Logger.getLogger(Other.class);
+            }
+        };
+    }
+
+    void local() {
+        class Local {
+            private final Logger field = Logger.getLogger(Local.class);
+        }
+        new Local();
+    }
+
+    static class Nested {
+        private static final Logger LOG = Logger.getLogger(Lookups.class);
+        private final Logger field = Logger.getLogger(Nested.class);
+    }
+
+    interface Constants {
+        Logger LOG = Logger.getLogger(Constants.class);
+        Logger WRONG = Logger.getLogger(Lookups.class);
+    }
+}
+
+class Other {
+}
@@ -0,0 +1,45 @@
+package tiered;
+
+import org.apache.log4j.Logger;
+
+/**
+ * The symbol solver does not find the fields of anonymous classes, only the syntactic tier decides calls on them.
+ */
+public class Anonymous {
+
+    private static final Logger LOG = Logger.getLogger(Anonymous.class);
+
+    Runnable fieldOfAnonymousClass() {
+        return new Runnable() {
+            private final java.util.logging.Logger log = java.util.logging.Logger.getLogger("anonymous");
+
+            @Override
+            public void run() {
+                // syntactic
+                log.info("field of the anonymous class");
+            }
+        };
+    }
+
+    Runnable fieldOfOuterClass() {
+        return new Runnable() {
+            @Override
+            public void run() {
+                // solver
+                LOG.debug("might be a field of the anonymous class' supertype");
+            }
+        };
+    }
+
+    Object localOfAnonymousClass() {
+        return new Object() {
+            @Override
+            public String toString() {
+                Logger log = Logger.getLogger(Anonymous.class);
+                // syntactic
+                log.debug("local of the anonymous class");
+                return "";
+            }
+        };
+    }
+}
@@ -0,0 +1,8 @@
+package tiered;
+
+import org.apache.log4j.Logger;
+
+public class Base {
+
+    protected final Logger log = Logger.getLogger(Base.class);
+}
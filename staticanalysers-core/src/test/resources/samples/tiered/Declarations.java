@@ -0,0 +1,79 @@
+package tiered;
+
+import org.apache.log4j.Logger;
+
+import java.util.function.Consumer;
+
+/**
+ * Logger calls on parameters, locals and fields, some of them shadowing the inherited field. The comment before a
+ * statement tells which tier is expected to decide its logger call.
+ */
+public class Declarations extends Base {
+
+    private static final Logger LOG = Logger.getLogger(Declarations.class);
+
+    void inherited() {
+        // solver
+        log.debug("inherited field");
+    }
+
+    void parameter(Logger log) {
+        // syntactic
+        log.debug("parameter shadowing the inherited field");
+    }
+
+    void otherParameter(java.util.logging.Logger log) {
+        // syntactic
+        log.info("parameter of another logger type");
+    }
+
+    void local() {
+        Logger local = LOG;
+        // syntactic
+        local.info("local");
+        java.util.logging.Logger log = java.util.logging.Logger.getLogger("local");
+        // syntactic
+        log.warning("local shadowing the inherited field");
+    }
+
+    void scopes() {
+        {
+            java.util.logging.Logger log = java.util.logging.Logger.getLogger("block");
+            // syntactic
+            log.info("local of a block");
+        }
+        // solver
+        log.info("inherited field after the block");
+    }
+
+    void lambda() {
+        Consumer<Logger> consumer = l -> {
+            // solver
+            l.debug("lambda parameter");
+        };
+        consumer.accept(LOG);
+    }
+
+    void qualified() {
+        // syntactic
+        Logger.getLogger("qualified").trace("qualified lookup");
+        // syntactic
+        org.apache.log4j.Logger.getLogger("qualified").error("qualified name");
+    }
+
+    class Shadowing {
+
+        private final java.util.logging.Logger log = java.util.logging.Logger.getLogger("shadowing");
+
+        void field() {
+            // syntactic
+            log.info("field shadowing the inherited field");
+            // syntactic
+            this.log.info("field by this");
+            // solver
+            Declarations.this.log.debug("inherited field of the outer type");
+            // syntactic
+            LOG.debug("field of the outer type");
+        }
+    }
+}
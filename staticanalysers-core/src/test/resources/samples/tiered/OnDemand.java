@@ -0,0 +1,16 @@
+package tiered;
+
+import org.apache.log4j.*;
+
+/**
+ * The type of the logger is imported on demand, so it might as well be a type of this package.
+ */
+public class OnDemand {
+
+    private static final Logger LOG = Logger.getLogger(OnDemand.class);
+
+    void onDemand() {
+        // solver
+        LOG.info("on demand import");
+    }
+}
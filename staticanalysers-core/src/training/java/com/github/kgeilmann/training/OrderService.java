@@ -0,0 +1,55 @@
+package com.github.kgeilmann.training;
+
+import org.apache.log4j.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class OrderService extends Service {
+
+    private final List<Order> orders = new ArrayList<>();
+
+    @Override
+    protected Object handle(Object request) {
+        Order order = new Order(String.valueOf(request), orders.size());
+        orders.add(order);
+        log.info("Order " + order + " added, " + orders.size() + " orders");
+        category.warn(order.toString());
+        return order;
+    }
+
+    public void report() {
+        Logger reportLog = Logger.getLogger(Service.class);
+        for (Order order : orders) {
+            if (reportLog.isDebugEnabled()) {
+                reportLog.debug(String.format("%s: %d", order.getId(), order.getAmount()));
+            }
+            reportLog.trace("Reported " + order);
+        }
+        orders.forEach(o -> log.info(o));
+        new Runnable() {
+            @Override
+            public void run() {
+                log.error("Report of " + orders.size() + " orders done");
+            }
+        }.run();
+    }
+
+    private static class Order {
+        private final String id;
+        private final int amount;
+
+        Order(String id, int amount) {
+            this.id = id;
+            this.amount = amount;
+        }
+
+        String getId() {
+            return id;
+        }
+
+        int getAmount() {
+            return amount;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.github.kgeilmann.training;
+
+import org.apache.log4j.*;
+
+/**
+ * Base class with an inherited logger and on demand imports, so the logger calls of the subclasses can only be decided
+ * by the symbol solver.
+ */
+public abstract class Service {
+
+    protected final Logger log = Logger.getLogger(getClass());
+    protected static Category category = Category.getInstance(Service.class);
+
+    protected abstract Object handle(Object request);
+
+    public Object process(Object request) {
+        log.debug("Processing " + request);
+        return handle(request);
+    }
+}
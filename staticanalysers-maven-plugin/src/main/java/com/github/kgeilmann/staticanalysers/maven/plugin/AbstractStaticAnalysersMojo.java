@@ -0,0 +1,69 @@
+package com.github.kgeilmann.staticanalysers.maven.plugin;
+
+import com.github.kgeilmann.core.SourceFilter;
+import org.apache.maven.doxia.sink.Sink;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.reporting.AbstractMavenReport;
+import org.apache.maven.reporting.MavenReportException;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Parameters and report head shared by the report goals.
+ */
+public abstract class AbstractStaticAnalysersMojo extends AbstractMavenReport {
+
+    /**
+     * Glob patterns of the source files to analyse, matched against the absolute path. All java files, if empty.
+     */
+    @Parameter(property = "staticanalysers.includes")
+    private List<String> includes;
+
+    /**
+     * Glob patterns of the source files not to analyse, e.g. <code>**&#47;target/generated-sources/**</code>. Excluded files are
+     * still used for symbol solving.
+     */
+    @Parameter(property = "staticanalysers.excludes")
+    private List<String> excludes;
+
+    /**
+     * Source files larger than this (in bytes) are not analysed. No limit, if 0.
+     */
+    @Parameter(property = "staticanalysers.maxFileSize", defaultValue = "0")
+    private long maxFileSize;
+
+    protected SourceFilter sourceFilter() {
+        return new SourceFilter(includes, excludes, maxFileSize);
+    }
+
+    @Override
+    public String getName(Locale locale) {
+        return "Static Analysers Report";
+    }
+
+    @Override
+    public String getDescription(Locale locale) {
+        return "";
+    }
+
+    /**
+     * Writes the head of the report and opens its body, which is closed by the caller.
+     */
+    protected Sink startReport() throws MavenReportException {
+        getLog().info("Generating " + getOutputName() + ".html for " + project.getName() + " " + project.getVersion() + " ...");
+
+        Sink s = getSink();
+        if (s == null) {
+            throw new MavenReportException("Could not get the Doxia sink");
+        }
+        s.head();
+        s.title();
+        s.text("Static Analyses Report for " + project.getName() + " " + project.getVersion());
+        s.title_();
+        s.head_();
+
+        s.body();
+        return s;
+    }
+}
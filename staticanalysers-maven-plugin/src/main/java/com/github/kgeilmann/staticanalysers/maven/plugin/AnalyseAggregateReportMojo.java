@@ -2,13 +2,11 @@ package com.github.kgeilmann.staticanalysers.maven.plugin;
 
 import org.apache.maven.artifact.DependencyResolutionRequiredException;
 import org.apache.maven.doxia.sink.Sink;
-import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.plugins.annotations.ResolutionScope;
 import org.apache.maven.project.MavenProject;
-import org.apache.maven.reporting.AbstractMavenReport;
 import org.apache.maven.reporting.MavenReportException;
 
 import java.io.IOException;
@@ -17,52 +15,28 @@ import java.util.Locale;
 
 
 @Mojo(name = "analyse-aggregate", aggregator = true, defaultPhase = LifecyclePhase.SITE, requiresDependencyResolution = ResolutionScope.COMPILE_PLUS_RUNTIME, requiresProject = true)
-public class AnalyseAggregateReportMojo extends AbstractMavenReport {
-
-    private final ProjectReporter reporter = new ProjectReporter();
+public class AnalyseAggregateReportMojo extends AbstractStaticAnalysersMojo {
 
     @Override
     public String getOutputName() {
         return "com.github.kgeilmann.staticanalysers.aggregate";
     }
 
-    @Override
-    public String getName(Locale locale) {
-        return "Static Analysers Report";
-    }
-
-    @Override
-    public String getDescription(Locale locale) {
-        return "";
-    }
-
     @Parameter(property = "reactorProjects", readonly = true)
     private List<MavenProject> reactorProjects;
 
     @Override
     protected void executeReport(Locale locale) throws MavenReportException {
 
-        Log logger = getLog();
-        logger.info("Generating " + getOutputName() + ".html for " + project.getName() + " " + project.getVersion() + " ...");
-
-        Sink s = getSink();
-        if (s == null) {
-            throw new MavenReportException("Could not get the Doxia sink");
-        }
+        ProjectReporter reporter = new ProjectReporter(sourceFilter());
+        Sink s = startReport();
 
         try {
-            s.head();
-            s.title();
-            s.text("Static Analyses Report for " + project.getName() + " " + project.getVersion());
-            s.title_();
-            s.head_();
-
-            s.body();
-
+            // one project after another, the symbol solver based analyses cannot run concurrently anyway
             for (MavenProject p : reactorProjects) {
                 getLog().info("Analysing " + p.getName());
                 reporter.execute(p, s);
-                getLog().info("... done");
+                getLog().info("... done " + p.getName());
             }
 
             s.body_();
@@ -0,0 +1,122 @@
+package com.github.kgeilmann.staticanalysers.maven.plugin;
+
+import com.github.kgeilmann.core.AnalysisResult;
+import com.github.kgeilmann.core.SourceFilter;
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the analyses as a pass/fail check without the site and Doxia overhead. The findings are written to a tab
+ * separated result file (file relative to the project directory, line, severity, complaint), the most severe findings
+ * first. The line is 0 if unknown. Calls, which could not be solved, are no findings, they are only logged.
+ */
+@Mojo(name = "check", defaultPhase = LifecyclePhase.VERIFY, requiresDependencyResolution = ResolutionScope.COMPILE_PLUS_RUNTIME, threadSafe = true)
+public class CheckMojo extends AbstractMojo {
+
+    @Parameter(defaultValue = "${project}", readonly = true, required = true)
+    private MavenProject project;
+
+    /**
+     * Glob patterns of the source files to analyse, matched against the absolute path. All java files, if empty.
+     */
+    @Parameter(property = "staticanalysers.includes")
+    private List<String> includes;
+
+    /**
+     * Glob patterns of the source files not to analyse, e.g. <code>**&#47;target/generated-sources/**</code>. Excluded files are
+     * still used for symbol solving.
+     */
+    @Parameter(property = "staticanalysers.excludes")
+    private List<String> excludes;
+
+    /**
+     * Source files larger than this (in bytes) are not analysed. No limit, if 0.
+     */
+    @Parameter(property = "staticanalysers.maxFileSize", defaultValue = "0")
+    private long maxFileSize;
+
+    /**
+     * Whether the build fails, if more than {@link #maxFindings} findings are found. If so, the analysis is cancelled
+     * as soon as this number is exceeded.
+     */
+    @Parameter(property = "staticanalysers.failOnFindings", defaultValue = "true")
+    private boolean failOnFindings;
+
+    /**
+     * Number of findings still accepted, 0 fails the build on the first finding.
+     */
+    @Parameter(property = "staticanalysers.maxFindings", defaultValue = "0")
+    private int maxFindings;
+
+    @Parameter(property = "staticanalysers.resultFile", defaultValue = "${project.build.directory}/staticanalysers-result.tsv")
+    private File resultFile;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        int resultLimit = failOnFindings ? maxFindings + 1 : 0;
+        ProjectReporter reporter = new ProjectReporter(new SourceFilter(includes, excludes, maxFileSize), resultLimit);
+
+        List<AnalysisResult> results;
+        try {
+            getLog().info("Analysing " + project.getName());
+            results = reporter.analyse(project);
+            writeResultFile(results);
+        } catch (DependencyResolutionRequiredException | IOException e) {
+            getLog().error("Cannot analyse project: " + e.getMessage());
+            throw new MojoExecutionException("Cannot analyse project", e);
+        }
+
+        List<AnalysisResult> unsolved = results.stream().filter(AnalysisResult::isUnsolved).collect(Collectors.toList());
+        if (!unsolved.isEmpty()) {
+            getLog().warn(unsolved.size() + " method calls could not be solved, they are not counted as findings. Check the classpath of the project.");
+            unsolved.forEach(r -> getLog().debug(r.getFilePath() + " " + r.getLocation() + ": " + r.getMessage()));
+        }
+
+        int findings = AnalysisResult.findings(results);
+        if (failOnFindings && findings > maxFindings) {
+            throw new MojoFailureException("Static analysers found more than " + maxFindings + " findings, see " + resultFile);
+        }
+        getLog().info("... done, " + findings + " findings");
+    }
+
+    private void writeResultFile(List<AnalysisResult> results) throws IOException {
+        List<AnalysisResult> ranked = new ArrayList<>(results);
+        ranked.sort(AnalysisResult.BY_SEVERITY);
+        Files.createDirectories(resultFile.toPath().getParent());
+        try (BufferedWriter writer = Files.newBufferedWriter(resultFile.toPath(), StandardCharsets.UTF_8)) {
+            for (AnalysisResult r : ranked) {
+                if (r.isUnsolved()) {
+                    continue;
+                }
+                writer.write(file(r) + "\t" + r.getLine() + "\t" + r.getSeverity() + "\t" + r.getMessage());
+                writer.newLine();
+            }
+        }
+    }
+
+    private String file(AnalysisResult result) {
+        Path path = result.getSourcePath();
+        if (path == null) {
+            return result.getFilePath();
+        }
+        Path basedir = project.getBasedir().toPath().toAbsolutePath();
+        return (path.isAbsolute() && path.startsWith(basedir) ? basedir.relativize(path) : path).toString().replace(File.separatorChar, '/');
+    }
+}
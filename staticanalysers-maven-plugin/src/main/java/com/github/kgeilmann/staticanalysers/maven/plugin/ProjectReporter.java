@@ -2,6 +2,8 @@ package com.github.kgeilmann.staticanalysers.maven.plugin;
 
 import com.github.kgeilmann.core.Analyser;
 import com.github.kgeilmann.core.AnalysisResult;
+import com.github.kgeilmann.core.CostProfile;
+import com.github.kgeilmann.core.SourceFilter;
 import org.apache.maven.artifact.DependencyResolutionRequiredException;
 import org.apache.maven.doxia.sink.Sink;
 import org.apache.maven.doxia.sink.impl.SinkEventAttributeSet;
@@ -10,23 +12,42 @@ import org.apache.maven.project.MavenProject;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
 import static org.apache.maven.doxia.sink.Sink.JUSTIFY_LEFT;
+import static org.apache.maven.doxia.sink.Sink.JUSTIFY_RIGHT;
 
 public class ProjectReporter {
 
+    private final SourceFilter filter;
+    private final int resultLimit;
+
+    public ProjectReporter(SourceFilter filter) {
+        this(filter, 0);
+    }
+
+    public ProjectReporter(SourceFilter filter, int resultLimit) {
+        this.filter = filter;
+        this.resultLimit = resultLimit;
+    }
+
     protected void execute(MavenProject p, Sink sink) throws IOException, DependencyResolutionRequiredException {
+        report(p, analyse(p), sink);
+    }
+
+    protected void report(MavenProject p, List<AnalysisResult> results, Sink sink) {
 
         sink.section(1, new SinkEventAttributeSet());
         sink.sectionTitle(1, new SinkEventAttributeSet());
         sink.text(p.getName());
         sink.sectionTitle_(1);
 
-        Map<String, List<AnalysisResult>> grouped = analyse(p).stream().collect(Collectors.groupingBy(a -> a.getFilePath()));
+        Map<String, List<AnalysisResult>> grouped = AnalysisResult.rankedByFile(results);
         if (grouped.isEmpty()) {
             sink.text("Nothing found.");
         }
@@ -45,7 +66,7 @@ public class ProjectReporter {
         sink.sectionTitle_(level);
 
         sink.table();
-        sink.tableRows(new int[]{JUSTIFY_LEFT, JUSTIFY_LEFT}, true);
+        sink.tableRows(new int[]{JUSTIFY_LEFT, JUSTIFY_LEFT, JUSTIFY_RIGHT, JUSTIFY_LEFT}, true);
         sink.tableRow();
         sink.tableHeaderCell();
         sink.text("Position");
@@ -54,6 +75,9 @@ public class ProjectReporter {
         sink.text("Expression");
         sink.tableHeaderCell_();
         sink.tableHeaderCell();
+        sink.text("Severity");
+        sink.tableHeaderCell_();
+        sink.tableHeaderCell();
         sink.text("Complaint");
         sink.tableHeaderCell_();
         sink.tableRow_();
@@ -66,6 +90,9 @@ public class ProjectReporter {
             sink.text(r.getExpression());
             sink.tableCell_();
             sink.tableCell();
+            sink.text(String.valueOf(r.getSeverity()));
+            sink.tableCell_();
+            sink.tableCell();
             sink.text(r.getMessage());
             sink.tableCell_();
             sink.tableRow_();
@@ -74,7 +101,7 @@ public class ProjectReporter {
         sink.section_(level);
     }
 
-    private List<AnalysisResult> analyse(MavenProject project) throws DependencyResolutionRequiredException, IOException {
+    List<AnalysisResult> analyse(MavenProject project) throws DependencyResolutionRequiredException, IOException {
 
         if (project.getCompileClasspathElements() == null || project.getCompileSourceRoots() == null) {
             return Collections.emptyList();
@@ -85,7 +112,14 @@ public class ProjectReporter {
             return Collections.emptyList();
         }
 
+        // jars and class directories, e.g. of other modules of the reactor
         List<String> existingClasspathElements = project.getCompileClasspathElements().stream().filter(s -> new File(s).exists()).collect(Collectors.toList());
-        return new Analyser().analyze(existingSourceRoots, existingClasspathElements);
+        // compiled classes allow the faster bytecode based analyses
+        List<String> classDirectories = Collections.singletonList(project.getBuild().getOutputDirectory());
+        return new Analyser(filter, resultLimit, CostProfile.load(costProfile(project))).analyze(existingSourceRoots, existingClasspathElements, classDirectories);
+    }
+
+    private Path costProfile(MavenProject project) {
+        return Paths.get(project.getBuild().getDirectory(), "staticanalysers-costs.tsv");
     }
 }
\ No newline at end of file